@@ -2,8 +2,10 @@ package com.cescdev.crud_fullstack_angular;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(CustomerRuntimeHints.class) // Pistas para la imagen nativa (perfil native)
 public class CrudFullstackAngularApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,71 @@
+package com.cescdev.crud_fullstack_angular;
+
+import com.cescdev.crud_fullstack_angular.dto.BatchItemResult;
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.ChangeFeed;
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerBatchUpdateDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerChange;
+import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerPatchDto;
+import com.cescdev.crud_fullstack_angular.dto.ImportResult;
+import com.cescdev.crud_fullstack_angular.dto.PageResponse;
+import com.cescdev.crud_fullstack_angular.dto.WriteStatus;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.ErrorDetails;
+import com.cescdev.crud_fullstack_angular.exception.GlobalExceptionHandler;
+import com.cescdev.crud_fullstack_angular.exception.ReactiveExceptionHandler;
+import com.cescdev.crud_fullstack_angular.service.CustomerSpecifications;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.sql.Connection;
+
+/**
+ * Pistas de reflexión para la imagen nativa de GraalVM (perfil native): lo que
+ * el análisis de Spring AOT no puede deducir solo del código.
+ *
+ *   - Customer: Hibernate crea instancias y accede a los campos por reflexión.
+ *   - DTOs, ErrorDetails y páginas: Jackson los (de)serializa por reflexión;
+ *     CustomerOutputDto además se construye en las consultas (SELECT new ...).
+ *   - CustomerSpecifications: sus predicados acceden a los atributos por nombre.
+ *   - Manejadores de excepciones: sus métodos se invocan por reflexión.
+ *   - Connection: ReplicaPool envuelve las conexiones de las réplicas en un proxy JDK.
+ *
+ * Con la JVM (y en el perfil aot) no hacen falta y no cambian nada.
+ */
+public class CustomerRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.reflection().registerType(Customer.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_DECLARED_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                CustomerInputDto.class,
+                CustomerBatchUpdateDto.class,
+                CustomerPatchDto.class,
+                CustomerOutputDto.class,
+                CursorPage.class,
+                PageResponse.class,
+                BatchResult.class,
+                BatchItemResult.class,
+                ImportResult.class,
+                ChangeFeed.class,
+                CustomerChange.class,
+                WriteStatus.class,
+                ErrorDetails.class);
+        hints.reflection().registerType(CustomerOutputDto.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        hints.reflection().registerType(CustomerSpecifications.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(GlobalExceptionHandler.class, MemberCategory.INVOKE_DECLARED_METHODS);
+        hints.reflection().registerType(ReactiveExceptionHandler.class, MemberCategory.INVOKE_DECLARED_METHODS);
+
+        hints.proxies().registerJdkProxy(Connection.class);
+    }
+}
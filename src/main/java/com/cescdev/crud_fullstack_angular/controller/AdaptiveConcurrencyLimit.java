@@ -0,0 +1,117 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+/**
+ * Límite de peticiones simultáneas que se ajusta solo según la latencia
+ * observada (algoritmo de gradiente, como Gradient2 de Netflix concurrency-limits):
+ *
+ *   - Se comparan dos medias móviles de la latencia: la reciente (SHORT_WINDOW
+ *     muestras) y la de referencia (LONG_WINDOW muestras). No se usa la mínima:
+ *     un mismo endpoint mezcla respuestas de microsegundos (caché, 304) con otras
+ *     de milisegundos (BBDD), y contra la mínima todas las lentas parecerían cola
+ *     y el límite acabaría en min-limit. Las medias incluyen la misma mezcla.
+ *   - Mientras la reciente no pase de TOLERANCE veces la de referencia, el límite
+ *     crece (+ sqrt(límite), suavizado); si la pasa, baja en proporción (como
+ *     mucho a la mitad). Si la reciente cae muy por debajo (acaba una racha de
+ *     carga), la referencia baja más deprisa para no quedarse alta.
+ *   - Un error de servidor (5xx, fallo de conexión a la BBDD...) reduce el
+ *     límite un 10 % de inmediato, como el decremento multiplicativo de AIMD.
+ *   - Si no se está usando ni la mitad del límite no se sube: la latencia de
+ *     poca carga no dice nada de cuánta más se aguanta.
+ *
+ * Al no encolar nada, la latencia de lo que se admite queda acotada por la del
+ * límite actual aunque lleguen diez veces más peticiones.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    // Latencia reciente admitida sobre la de referencia antes de empezar a bajar
+    static final double TOLERANCE = 1.5;
+    // Peso de cada nuevo cálculo en el límite
+    static final double SMOOTHING = 0.2;
+    // Muestras de las medias móviles de latencia reciente y de referencia
+    static final int SHORT_WINDOW = 10;
+    static final int LONG_WINDOW = 600;
+    // Bajada de la referencia por muestra cuando dobla a la reciente
+    static final double LONG_RTT_DECAY = 0.95;
+    // Decremento ante error
+    static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    // 0 hasta la primera muestra
+    private double shortRtt;
+    private double longRtt;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Reserva un hueco; false si ya hay tantas peticiones en curso como el límite.
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Libera el hueco de una petición que ha tardado rttNanos.
+     *
+     * @param failed true si acabó en error de servidor.
+     */
+    synchronized void release(long rttNanos, boolean failed) {
+        int inFlightAtSample = inFlight--;
+        if (failed) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+            return;
+        }
+
+        double rtt = Math.max(1, rttNanos);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+        } else {
+            shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+            longRtt += (rtt - longRtt) / LONG_WINDOW;
+            if (longRtt > 2 * shortRtt) {
+                longRtt *= LONG_RTT_DECAY;
+            }
+        }
+        if (inFlightAtSample < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    /**
+     * Libera el hueco sin usar la latencia como muestra: la de una respuesta que
+     * no ha hecho el trabajo del endpoint (un 304) no dice nada de su carga.
+     */
+    synchronized void releaseWithoutSample() {
+        inFlight--;
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * true si lo ocupado llega a threshold (0..1) del límite.
+     */
+    synchronized boolean isBusy(double threshold) {
+        return inFlight >= limit * threshold;
+    }
+}
@@ -0,0 +1,49 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Registra ConcurrencyLimitInterceptor en /api/customers (variante MVC).
+ *
+ * Quedan fuera /changes, cuyo long-poll espera sin ocupar hilo ni conexión (y
+ * es asíncrono: el interceptor lo vería dos veces), y /writes/{trackingId},
+ * que sólo lee memoria. Con customers.limits.enabled=false no se limita nada.
+ */
+@Configuration
+@Profile("!reactive")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final boolean enabled;
+    private final ConcurrencyLimitInterceptor interceptor;
+
+    public ConcurrencyLimitConfig(
+            @Value("${customers.limits.enabled:true}") boolean enabled,
+            @Value("${customers.limits.initial-limit:20}") int initialLimit,
+            @Value("${customers.limits.min-limit:2}") int minLimit,
+            @Value("${customers.limits.max-limit:200}") int maxLimit,
+            @Value("${customers.limits.priority-threshold:0.8}") double priorityThreshold,
+            @Value("${customers.limits.retry-after:1s}") Duration retryAfter,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.interceptor = new ConcurrencyLimitInterceptor(initialLimit, minLimit, maxLimit, priorityThreshold,
+                retryAfter, meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/customers", "/api/customers/**")
+                .excludePathPatterns("/api/customers/changes", "/api/customers/writes/**");
+    }
+}
@@ -0,0 +1,144 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limitación de concurrencia y descarte de carga en /api/customers.
+ *
+ *   - Cada endpoint (método de CustomerController) tiene su propio
+ *     {@link AdaptiveConcurrencyLimit}: entre customers.limits.min-limit y
+ *     max-limit, empezando en initial-limit, y ajustado según su latencia.
+ *     Con el parámetro name (palabra clave) la petición es una búsqueda, con
+ *     otra latencia que el listado del mismo método: cuenta como otro endpoint
+ *     (p. ej. findAll y findAll-search), para que sus muestras no se mezclen.
+ *   - Una petición que no cabe en el límite de su endpoint se rechaza al
+ *     momento con ServiceUnavailableException (503 + Retry-After), en lugar de
+ *     esperar en la cola de Tomcat hasta que venza.
+ *   - Prioridad ({@link RequestPriority}): los listados y búsquedas (SEARCH) se
+ *     descartan también en cuanto algún endpoint de escritura o de lectura
+ *     puntual ocupa customers.limits.priority-threshold de su límite, para
+ *     dejarles la base de datos a ellos.
+ *
+ * Es un HandlerInterceptor y no un filtro para conocer el endpoint y para que
+ * el rechazo pase por GlobalExceptionHandler (ErrorDetails) como cualquier error.
+ * Publica en Micrometer customers.limits.limit, customers.limits.in-flight y
+ * customers.limits.rejected, con las etiquetas endpoint y priority.
+ */
+class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED = ConcurrencyLimitInterceptor.class.getName() + ".ACQUIRED";
+    private static final String KEYWORD_PARAM = "name";
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double priorityThreshold;
+    private final Duration retryAfter;
+    private final MeterRegistry meterRegistry;
+    private final Map<EndpointKey, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    ConcurrencyLimitInterceptor(int initialLimit, int minLimit, int maxLimit, double priorityThreshold,
+                                Duration retryAfter, MeterRegistry meterRegistry) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.priorityThreshold = priorityThreshold;
+        this.retryAfter = retryAfter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String keyword = request.getParameter(KEYWORD_PARAM);
+        EndpointKey key = new EndpointKey(handlerMethod.getMethod(), keyword != null && !keyword.isBlank());
+        Endpoint endpoint = endpoints.computeIfAbsent(key,
+                k -> newEndpoint(k, HttpMethod.valueOf(request.getMethod())));
+
+        if (endpoint.priority == RequestPriority.Level.SEARCH && priorityTrafficBusy()) {
+            endpoint.rejected.increment();
+            throw new ServiceUnavailableException(
+                    "Servidor ocupado atendiendo escrituras y lecturas por ID; reintenta la búsqueda más tarde",
+                    retryAfter);
+        }
+        if (!endpoint.limit.tryAcquire()) {
+            endpoint.rejected.increment();
+            throw new ServiceUnavailableException(
+                    "Demasiadas peticiones simultáneas a " + endpoint.name + "; reintenta más tarde", retryAfter);
+        }
+        request.setAttribute(ACQUIRED, new Acquired(endpoint, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(ACQUIRED) instanceof Acquired acquired) {
+            request.removeAttribute(ACQUIRED);
+            if (ex == null && response.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+                // 304 por ETag: se responde sin consultar la BBDD, su latencia no cuenta
+                acquired.endpoint.limit.releaseWithoutSample();
+                return;
+            }
+            acquired.endpoint.limit.release(System.nanoTime() - acquired.startNanos,
+                    ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    /**
+     * true si algún endpoint WRITE o LOOKUP está cerca de su límite.
+     */
+    private boolean priorityTrafficBusy() {
+        for (Endpoint endpoint : endpoints.values()) {
+            if (endpoint.priority != RequestPriority.Level.SEARCH && endpoint.limit.isBusy(priorityThreshold)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Endpoint newEndpoint(EndpointKey key, HttpMethod httpMethod) {
+        Method method = key.method();
+        RequestPriority annotation = method.getAnnotation(RequestPriority.class);
+        RequestPriority.Level priority = annotation != null
+                ? annotation.value()
+                : httpMethod == HttpMethod.GET ? RequestPriority.Level.SEARCH : RequestPriority.Level.WRITE;
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit);
+        String name = key.search() ? method.getName() + "-search" : method.getName();
+        String tag = priority.name().toLowerCase(Locale.ROOT);
+
+        Gauge.builder("customers.limits.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .tag("endpoint", name).tag("priority", tag).register(meterRegistry);
+        Gauge.builder("customers.limits.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .tag("endpoint", name).tag("priority", tag).register(meterRegistry);
+        Counter rejected = Counter.builder("customers.limits.rejected")
+                .tag("endpoint", name).tag("priority", tag).register(meterRegistry);
+        return new Endpoint(name, priority, limit, rejected);
+    }
+
+    private record EndpointKey(Method method, boolean search) {
+    }
+
+    private record Endpoint(String name, RequestPriority.Level priority, AdaptiveConcurrencyLimit limit,
+                            Counter rejected) {
+    }
+
+    private record Acquired(Endpoint endpoint, long startNanos) {
+    }
+}
@@ -1,28 +1,79 @@
 package com.cescdev.crud_fullstack_angular.controller;
 
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.ChangeFeed;
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerBatchUpdateDto;
 import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
 import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerPatchDto;
+import com.cescdev.crud_fullstack_angular.dto.ImportResult;
+import com.cescdev.crud_fullstack_angular.dto.PageResponse;
+import com.cescdev.crud_fullstack_angular.dto.WriteStatus;
 import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.cescdev.crud_fullstack_angular.exception.ResourceNotFoundException;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapper;
+import com.cescdev.crud_fullstack_angular.service.CountMode;
+import com.cescdev.crud_fullstack_angular.service.CustomerChangeLog;
+import com.cescdev.crud_fullstack_angular.service.CustomerCursor;
+import com.cescdev.crud_fullstack_angular.service.CustomerSort;
 import com.cescdev.crud_fullstack_angular.service.CustomerService;
+import com.cescdev.crud_fullstack_angular.service.CustomerWriteBehind;
+import com.cescdev.crud_fullstack_angular.service.DuplicatePolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.cescdev.crud_fullstack_angular.controller.CustomerHttpSupport.*;
 
 @RestController // Marca la clase como controlador REST
+@Profile("!reactive") // Variante MVC/JPA (por defecto); con el perfil reactive la sustituye ReactiveCustomerController
 @RequestMapping("/api/customers") // Prefijo común para todos los endpoints
-@CrossOrigin(origins = "http://localhost:4200") // Permite peticiones desde Angular en el puerto 4200
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = {HttpHeaders.ETAG, HttpHeaders.RETRY_AFTER}) // Permite peticiones desde Angular en el puerto 4200 (y leer el ETag y Retry-After)
 public class CustomerController {
 
     private final CustomerService customerService;
+    // Para serializar las líneas NDJSON con la misma configuración que el resto del API
+    private final ObjectMapper objectMapper;
+    // Conversión entidad ↔ DTO generada por MapStruct
+    private final CustomerMapper customerMapper;
+    // Registro de cambios para /changes
+    private final CustomerChangeLog changeLog;
+    // Escritura diferida (Prefer: respond-async); sólo existe con customers.write-behind.enabled=true
+    private final CustomerWriteBehind writeBehind;
 
-    public CustomerController(CustomerService cs) {
+    public CustomerController(CustomerService cs, ObjectMapper objectMapper, CustomerMapper customerMapper,
+                              CustomerChangeLog changeLog, Optional<CustomerWriteBehind> writeBehind) {
         this.customerService = cs;
+        this.objectMapper = objectMapper;
+        this.customerMapper = customerMapper;
+        this.changeLog = changeLog;
+        this.writeBehind = writeBehind.orElse(null);
     }
 
     // ----------- ENDPOINTS -----------
@@ -32,18 +83,24 @@ public class CustomerController {
      *
      * @param inputDto DTO con los datos de entrada.
      *                 @Valid activa las validaciones definidas en CustomerInputDto.
+     * @param prefer   (opcional) "respond-async" para escribir en diferido (ver writeAccepted).
      * @return ResponseEntity con:
      *         - HTTP 201 Created
      *         - Header Location: URI del recurso creado (/api/customers/{id})
      *         - Body: CustomerOutputDto con los datos del nuevo cliente
+     *         o 202 Accepted si se escribe en diferido.
      */
 
     @PostMapping
-    public ResponseEntity<CustomerOutputDto> save(
-            @RequestBody @Valid CustomerInputDto inputDto
+    public ResponseEntity<?> save(
+            @RequestBody @Valid CustomerInputDto inputDto,
+            @RequestHeader(value = "Prefer", required = false) String prefer
     ) {
         // Mapear DTO de entrada a entidad JPA
-        Customer toSave = toEntity(inputDto);
+        Customer toSave = customerMapper.toEntity(inputDto);
+        if (writeBehind != null && respondAsync(prefer)) {
+            return writeAccepted(writeBehind.submitCreate(toSave));
+        }
         // Guardar la entidad (INSERT en la base de datos)
         Customer saved = customerService.save(toSave);
         // Construir el header Location con la URI del nuevo recurso
@@ -53,9 +110,91 @@ public class CustomerController {
                 .buildAndExpand(saved.getId()) // Sustituye {id} por el valor generado
                 .toUri();
 
-        // Devolver 201 Created + Location + DTO de salida
+        // Devolver 201 Created + Location + ETag + DTO de salida
         return ResponseEntity.created(location)
-                .body(toDto(saved));
+                .eTag(etag(saved.getVersion()))
+                .body(customerMapper.toDto(saved));
+    }
+
+    /**
+     * Crea varios Customer en una sola petición.
+     * POST http://localhost:8080/api/customers/batch
+     *
+     * @param inputDtos array de CustomerInputDto. Cada elemento se valida por
+     *                  separado: los inválidos o con email repetido se reportan
+     *                  en la respuesta sin abortar el resto del lote.
+     * @return 200 OK con un BatchResult: un resultado por elemento (mismo orden),
+     *         con el ID generado de los creados.
+     */
+
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> saveAll(@RequestBody List<CustomerInputDto> inputDtos) {
+        List<Customer> toSave = inputDtos.stream()
+                .map(customerMapper::toEntity)
+                .toList();
+        return ResponseEntity.ok(customerService.saveAll(toSave));
+    }
+
+    /**
+     * Actualiza varios Customer en una sola petición.
+     * PUT http://localhost:8080/api/customers/batch
+     *
+     * @param inputDtos array de CustomerBatchUpdateDto (datos + id).
+     * @return 200 OK con un BatchResult (los ids inexistentes salen como NOT_FOUND).
+     */
+
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResult> updateAll(@RequestBody List<CustomerBatchUpdateDto> inputDtos) {
+        List<Customer> toUpdate = inputDtos.stream()
+                .map(customerMapper::toEntity)
+                .toList();
+        return ResponseEntity.ok(customerService.updateAll(toUpdate));
+    }
+
+    /**
+     * Elimina varios Customer por ID.
+     * POST http://localhost:8080/api/customers/batch/delete
+     * (POST y no DELETE porque la lista de IDs va en el body.)
+     *
+     * @param ids array de IDs a eliminar.
+     * @return 200 OK con un BatchResult (los ids inexistentes salen como NOT_FOUND).
+     */
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<BatchResult> deleteAllById(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(customerService.deleteAllById(ids));
+    }
+
+    /**
+     * Importa un fichero de clientes (CSV o NDJSON) de cualquier tamaño.
+     * POST http://localhost:8080/api/customers/import?format=csv&onDuplicate=skip
+     *
+     * El body se lee en streaming (no se carga entero en memoria): cada registro
+     * se valida con las mismas reglas que CustomerInputDto y se escriben en
+     * bloques transaccionales de customers.batch.chunk-size filas.
+     *
+     * @param format      "csv" (por defecto) o "ndjson".
+     * @param onDuplicate qué hacer si el email ya existe: "skip" (por defecto),
+     *                    "upsert" (actualiza el existente) o "fail" (detiene la importación).
+     * @return 200 OK con un ImportResult: totales, rendimiento y primeros errores.
+     */
+
+    @PostMapping("/import")
+    public ResponseEntity<ImportResult> importAll(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "skip") String onDuplicate,
+            HttpServletRequest request
+    ) throws IOException {
+        DuplicatePolicy policy = switch (onDuplicate.toLowerCase(Locale.ROOT)) {
+            case "skip" -> DuplicatePolicy.SKIP;
+            case "upsert" -> DuplicatePolicy.UPSERT;
+            case "fail" -> DuplicatePolicy.FAIL;
+            default -> throw new BadRequestException("Política de duplicados no válida: " + onDuplicate);
+        };
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        CustomerImportReader records = CustomerImportReader.forFormat(format, in, objectMapper, customerMapper::toEntity);
+        return ResponseEntity.ok(customerService.importAll(records, policy));
     }
 
     /**
@@ -64,72 +203,285 @@ public class CustomerController {
      *
      * @param name     (opcional) palabra clave para búsqueda en
      *                 firstName, lastName o email.
-     * @param pageable Parámetros de paginación (page, size), con tamaño por defecto 5.
-     * @return 200 OK con un Page<CustomerOutputDto> que contiene:
+     * @param count    (opcional) cómo calcular el total:
+     *                 - exact  (por defecto): Page con count(*) exacto.
+     *                 - none:   Slice sin total (sólo hasNext), un único SELECT.
+     *                 - approx: Page con total aproximado cacheado.
+     * @param pageable Parámetros de paginación (page, size, sort), con tamaño por defecto 5.
+     *                 sort sólo admite id, lastName, firstName o email y se completa
+     *                 con desempates fijos (ver CustomerSort); otro campo da 400.
+     * @param ifNoneMatch (opcional) ETag de una respuesta anterior: si la tabla
+     *                 no ha cambiado desde entonces se responde 304 sin consultar.
+     * @return 200 OK con un PageResponse<CustomerOutputDto> que contiene:
      *         - content: lista de clientes
-     *         - totalElements, totalPages, number, first, last...
+     *         - totalElements, totalPages (salvo con count=none), number, first, last...
+     *         En JSON, o en CBOR / Smile si el Accept los pide
+     *         (application/cbor, application/x-jackson-smile).
      */
 
     @GetMapping
-    public ResponseEntity<Page<CustomerOutputDto>> findAll(
+    public ResponseEntity<PageResponse<CustomerOutputDto>> findAll(
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "exact") String count,
+            @PageableDefault(size = 5) Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        CountMode countMode = toCountMode(count);
+        Pageable sorted = CustomerSort.managed(pageable);
+
+        // La versión se lee ANTES de consultar: si hay una escritura en medio,
+        // el ETag queda antiguo y el siguiente sondeo vuelve a descargar (nunca al revés)
+        String listTag = listEtag(customerService.currentTableVersion());
+        if (matches(ifNoneMatch, listTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(listTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        // Llamamos al servicio; si name está presente, aplicamos search(), si no, findAll().
+        // Lectura proyectada: los DTO salen directamente de la consulta, sin entidades.
+        Slice<CustomerOutputDto> dtoPage = (name != null && !name.isBlank())
+                ? customerService.searchProjected(name, sorted, countMode)
+                : customerService.findAllProjected(sorted, countMode);
+
+        // Devolvemos código 200 OK con la página de DTOs (el formato depende del Accept)
+        return ResponseEntity.ok().eTag(listTag).varyBy(HttpHeaders.ACCEPT).body(PageResponse.of(dtoPage));
+    }
+
+    /**
+     * Obtiene una página por cursor (keyset), sin OFFSET ni count(*).
+     * GET http://localhost:8080/api/customers?after=&size=20            (primera página)
+     * GET http://localhost:8080/api/customers?after={nextCursor}&size=20 (siguientes)
+     *
+     * Se activa con la mera presencia del parámetro after (aunque venga vacío).
+     *
+     * @param after   token opaco devuelto como nextCursor en la página anterior.
+     * @param name    (opcional) palabra clave, igual que en findAll.
+     * @param orderBy orden del recorrido: "id" (por defecto) o "lastName".
+     *                Sólo se tiene en cuenta en la primera página; después manda el cursor.
+     * @param size    número de elementos por página (por defecto 5).
+     * @param ifNoneMatch (opcional) ETag de una respuesta anterior (ver findAll).
+     * @return 200 OK con un CursorPage<CustomerOutputDto>: content, nextCursor, hasNext.
+     */
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<CustomerOutputDto>> findAllAfter(
+            @RequestParam String after,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "id") String orderBy,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String listTag = listEtag(customerService.currentTableVersion());
+        if (matches(ifNoneMatch, listTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(listTag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        CustomerCursor cursor = after.isBlank() ? null : CustomerCursor.decode(after);
+        CustomerCursor.Order order = toCursorOrder(orderBy);
+        int pageSize = cursorPageSize(size);
+
+        CursorPage<CustomerOutputDto> page = (name != null && !name.isBlank())
+                ? customerService.searchAfterProjected(name, cursor, order, pageSize)
+                : customerService.findAllAfterProjected(cursor, order, pageSize);
+
+        return ResponseEntity.ok().eTag(listTag).varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    /**
+     * Exporta todos los clientes en streaming.
+     * GET http://localhost:8080/api/customers/export?format=ndjson
+     * GET http://localhost:8080/api/customers/export?format=csv&name=garcia
+     *
+     * Las filas se escriben en la respuesta según se leen de la base de datos,
+     * sin paginar ni acumularlas: la memoria no crece con el tamaño de la tabla.
+     *
+     * @param format "ndjson" (por defecto) o "csv".
+     * @param name   (opcional) misma palabra clave que en findAll.
+     */
+
+    @GetMapping("/export")
+    public void export(
+            @RequestParam(defaultValue = "ndjson") String format,
             @RequestParam(required = false) String name,
-            @PageableDefault(size = 5) Pageable pageable
+            HttpServletResponse response
+    ) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        CustomerExportWriter writer = CustomerExportWriter.forFormat(format, out, objectMapper);
+
+        response.setContentType(writer.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"customers." + writer.extension() + "\"");
+
+        writer.begin();
+        customerService.export(name, c -> writer.write(customerMapper.toDto(c)));
+        out.flush();
+    }
+
+    /**
+     * Autocompletado de clientes mientras se escribe.
+     * GET http://localhost:8080/api/customers/suggest?q=gar&limit=10
+     *
+     * Devuelve los clientes cuyo nombre, apellido o email empieza por q, sin
+     * distinguir mayúsculas ni acentos, ordenados por el campo que coincide.
+     * Se resuelve con el índice en memoria (CustomerSuggestIndex) sin ir a la BBDD.
+     *
+     * @param q     prefijo escrito por el usuario; vacío => lista vacía.
+     * @param limit máximo de sugerencias (por defecto 10, como mucho 50).
+     * @return 200 OK con la lista de CustomerOutputDto.
+     */
+
+    @GetMapping("/suggest")
+    @RequestPriority(RequestPriority.Level.LOOKUP)
+    public List<CustomerOutputDto> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit
     ) {
-        // Llamamos al servicio; si name está presente, aplicamos search(), si no, findAll()
-        Page<Customer> page = (name != null && !name.isBlank())
-                ? customerService.search(name, pageable)
-                : customerService.findAll(pageable);
+        return customerService.suggest(q, suggestLimit(limit));
+    }
 
-        // Convertimos cada Customer a CustomerOutputDto usando map
-        Page<CustomerOutputDto> dtoPage = page.map(this::toDto);
+    /**
+     * Cambios (altas, modificaciones y bajas) para sincronizar sin releer la tabla.
+     * GET http://localhost:8080/api/customers/changes                      (secuencia actual)
+     * GET http://localhost:8080/api/customers/changes?epoch=3f2a9c1d&since=120&wait=25    (long-poll)
+     *
+     * Sin since devuelve sólo epoch y lastSeq: el cliente los guarda, lee el listado
+     * completo y desde ahí pide ?epoch=epoch&since=lastSeq en bucle. Con wait la
+     * petición espera (sin ocupar un hilo) hasta que haya algún cambio o pasen wait segundos.
+     * El registro está en memoria y sólo ve lo escrito en esta instancia: con varias
+     * instancias requiere enrutado sticky a una de ellas (ver CustomerChangeLog).
+     *
+     * @param epoch epoch de la respuesta de la que sale since (obligatorio con since).
+     * @param since última secuencia ya aplicada por el cliente.
+     * @param limit máximo de cambios por respuesta (por defecto 100, como mucho 1000).
+     * @param wait  segundos a esperar si no hay cambios (por defecto 0, como mucho 25).
+     * @return 200 OK con un ChangeFeed (changes, epoch, lastSeq, hasMore), o 410 Gone si
+     *         los cambios desde since ya no se conservan o son de otro epoch (otra
+     *         instancia u otro arranque): hay que releer el listado.
+     */
 
-        // Devolvemos código 200 OK con la página de DTOs
-        return ResponseEntity.ok(dtoPage);
+    @GetMapping("/changes")
+    public CompletableFuture<ChangeFeed> changes(
+            @RequestParam(required = false) String epoch,
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") int wait
+    ) {
+        if (since == null) {
+            return CompletableFuture.completedFuture(changeLog.current());
+        }
+        return changeLog.await(changesEpoch(epoch), changesSince(since), changesLimit(limit), changesWait(wait));
     }
 
     /**
      * Recupera un único cliente por su ID.
      * GET http://localhost:8080/api/customers/{id}
      *
-     * @param id Identificador único del cliente en la URI.
-     * @return 200 OK + CustomerOutputDto si existe, o 404 Not Found si no.
+     * @param id          Identificador único del cliente en la URI.
+     * @param ifNoneMatch (opcional) ETag recibido antes ("<version>"). Si coincide
+     *                    con la versión cacheada (comprobada contra la BBDD hace menos de
+     *                    customers.cache.revalidate-after) se responde 304 sin cargar la entidad.
+     * @return 200 OK + ETag + CustomerOutputDto si existe, 304 Not Modified si no
+     *         ha cambiado, o 404 Not Found si no existe.
      */
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerOutputDto> findById(@PathVariable Integer id) {
+    @RequestPriority(RequestPriority.Level.LOOKUP)
+    public ResponseEntity<CustomerOutputDto> findById(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        // Camino rápido: versión en CustomerCache, sin copiar la entidad ni ir a la BBDD
+        if (ifNoneMatch != null) {
+            Long cached = customerService.findCachedVersion(id);
+            if (cached != null && matches(ifNoneMatch, etag(cached))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(cached)).build();
+            }
+        }
         // customerService.findById lanza ResourceNotFoundException si no existe
         Customer c = customerService.findById(id);
+        String tag = etag(c.getVersion());
+        if (matches(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+        }
         // Mapear entidad a DTO de salida y devolver 200 OK
-        return ResponseEntity.ok(toDto(c));
+        return ResponseEntity.ok().eTag(tag).body(customerMapper.toDto(c));
     }
 
     /**
      * Actualiza un cliente existente.
      * PUT http://localhost:8080/api/customers/{id}
      *
+     * Se resuelve con un único UPDATE (sin SELECT previo): si no afecta a
+     * ninguna fila, el cliente no existe (404) o su versión ya no es la de
+     * If-Match (412). Sin If-Match la nueva versión se lee tras el UPDATE.
+     *
      * @param id       ID del cliente a actualizar.
      * @param inputDto DTO con los nuevos valores (se validan).
-     * @return 200 OK + CustomerOutputDto con los datos actualizados.
+     * @param ifMatch  (opcional) ETag de la versión que el cliente editó.
+     * @param prefer   (opcional) "respond-async" para escribir en diferido (ver writeAccepted).
+     *                 Se ignora si viene If-Match: la versión se comprueba al momento.
+     * @return 200 OK + CustomerOutputDto con los datos actualizados y el ETag
+     *         de la nueva versión; o 202 Accepted si se escribe en diferido.
      */
 
     @PutMapping("/{id}")
-    public ResponseEntity<CustomerOutputDto> update(
+    public ResponseEntity<?> update(
             @PathVariable Integer id,
-            @RequestBody @Valid CustomerInputDto inputDto
+            @RequestBody @Valid CustomerInputDto inputDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = "Prefer", required = false) String prefer
     ) {
-        // Obtenemos la entidad existente o lanzamos excepción si no existe
-        Customer existing = customerService.findById(id);
+        if (writeBehind != null && ifMatch == null && respondAsync(prefer)) {
+            Customer data = customerMapper.toEntity(inputDto);
+            data.setId(id);
+            return writeAccepted(writeBehind.submitUpdate(data));
+        }
+        // UPDATE directo; lanza ResourceNotFoundException o PreconditionFailedException
+        Customer updated = customerService.updateById(id, customerMapper.toEntity(inputDto), versionOf(ifMatch));
+
+        return ResponseEntity.ok().eTag(etag(updated.getVersion())).body(customerMapper.toDto(updated));
+    }
 
-        // Actualizamos los campos de la entidad con los datos del DTO
-        existing.setFirstName(inputDto.getFirstName());
-        existing.setLastName(inputDto.getLastName());
-        existing.setEmail(inputDto.getEmail());
+    /**
+     * Estado de una escritura diferida.
+     * GET http://localhost:8080/api/customers/writes/{trackingId}
+     *
+     * @param trackingId identificador devuelto en el 202 de POST/PUT.
+     * @return 200 OK con un WriteStatus: PENDING mientras sigue en la cola y
+     *         después CREATED/UPDATED con el id, o el motivo del fallo
+     *         (DUPLICATE si el email ya existe, NOT_FOUND, INVALID...).
+     *         404 si el trackingId no existe o su resultado ya caducó.
+     */
 
-        // Guardamos los cambios (UPDATE en la base de datos)
-        Customer updated = customerService.update(existing);
+    @GetMapping("/writes/{trackingId}")
+    public WriteStatus writeStatus(@PathVariable String trackingId) {
+        if (writeBehind == null) {
+            throw new ResourceNotFoundException("Escritura con trackingId " + trackingId + " no se encuentra");
+        }
+        return writeBehind.status(trackingId);
+    }
+
+    /**
+     * Modifica sólo algunos campos de un cliente.
+     * PATCH http://localhost:8080/api/customers/{id}
+     *
+     * El UPDATE generado incluye únicamente las columnas que cambian.
+     *
+     * @param id       ID del cliente a modificar.
+     * @param patchDto campos a cambiar; los ausentes (o null) no se tocan.
+     * @param ifMatch  (opcional) ETag de la versión que el cliente editó; 412 si ya no es la actual.
+     * @return 200 OK + ETag nuevo + CustomerOutputDto completo tras el cambio.
+     */
 
-        // Guardamos los cambios (UPDATE en la base de datos)
-        return ResponseEntity.ok(toDto(updated));
+    @PatchMapping("/{id}")
+    public ResponseEntity<CustomerOutputDto> patch(
+            @PathVariable Integer id,
+            @RequestBody @Valid CustomerPatchDto patchDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Customer changes = customerMapper.toEntity(patchDto);
+        Customer patched = customerService.patch(id, changes, versionOf(ifMatch));
+        return ResponseEntity.ok().eTag(etag(patched.getVersion())).body(customerMapper.toDto(patched));
     }
 
     /**
@@ -137,43 +489,36 @@ public class CustomerController {
      * DELETE http://localhost:8080/api/customers/{id}
      *
      * @param id ID del cliente a eliminar.
-     * @return 204 No Content si la eliminación fue exitosa.
+     * @return 204 No Content si la eliminación fue exitosa, 404 si no existía.
      */
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteById(@PathVariable Integer id) {
-        // Ejecuta el DELETE; si no existe, lanza excepción
+        // Ejecuta el DELETE directo; si no borra nada, lanza ResourceNotFoundException
         customerService.deleteById(id);
         // 204 No Content: la petición fue exitosa pero sin body
         return ResponseEntity.noContent().build();
     }
 
-    // ----------- MÉTODOS DE MAPEADO (ENTIDAD ↔ DTO) -----------
-
     /**
-     * Convierte un CustomerInputDto (datos de entrada) en la entidad Customer.
-     * - No incluye el ID porque se genera en el INSERT.
+     * Respuesta de una escritura diferida (POST/PUT con Prefer: respond-async y
+     * customers.write-behind.enabled=true): la petición ya está validada y en la
+     * cola de CustomerWriteBehind, pero aún no escrita. Sin cola llena (503 +
+     * Retry-After) el cliente recibe:
+     *   - HTTP 202 Accepted + Preference-Applied: respond-async
+     *   - Header Location: /api/customers/writes/{trackingId}, donde consultar el resultado
+     *   - Body: WriteStatus en estado PENDING
      */
 
-    private Customer toEntity(CustomerInputDto dto) {
-        Customer c = new Customer();
-        c.setFirstName(dto.getFirstName()); // Mapea firstName
-        c.setLastName(dto.getLastName()); // Mapea lastName
-        c.setEmail(dto.getEmail()); // Mapea email
-        return c;
-    }
-
-    /**
-     * Convierte una entidad Customer en un CustomerOutputDto (datos de salida).
-     * - Incluye ID, firstName, lastName y email.
-     */
-
-    private CustomerOutputDto toDto(Customer c) {
-        return new CustomerOutputDto(
-                c.getId(), // ID generado por la base de datos
-                c.getFirstName(), // Nombre
-                c.getLastName(), // Apellido
-                c.getEmail() // Correo
-        );
+    private ResponseEntity<WriteStatus> writeAccepted(WriteStatus status) {
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentContextPath()
+                .path("/api/customers/writes/{trackingId}")
+                .buildAndExpand(status.trackingId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .header("Preference-Applied", "respond-async")
+                .body(status);
     }
 }
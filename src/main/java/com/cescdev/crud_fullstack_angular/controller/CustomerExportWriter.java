@@ -0,0 +1,119 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Escribe CustomerOutputDto uno a uno en el formato de exportación pedido.
+ *   - ndjson: un objeto JSON por línea (application/x-ndjson).
+ *   - csv:    cabecera + una línea por cliente, escapado según RFC 4180 (text/csv).
+ * No acumula nada en memoria: cada fila se escribe directamente en el Writer.
+ */
+abstract class CustomerExportWriter {
+
+    protected final Writer out;
+
+    private CustomerExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    static CustomerExportWriter forFormat(String format, Writer out, ObjectMapper objectMapper) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> new Ndjson(out, objectMapper);
+            case "csv" -> new Csv(out);
+            default -> throw new BadRequestException("Formato de exportación no válido: " + format);
+        };
+    }
+
+    /** Content-Type de la respuesta. */
+    abstract String contentType();
+
+    /** Extensión del fichero descargado. */
+    abstract String extension();
+
+    /** Lo que va antes de la primera fila (p. ej. la cabecera CSV). */
+    void begin() {
+    }
+
+    abstract void write(CustomerOutputDto dto);
+
+    private static final class Ndjson extends CustomerExportWriter {
+        private final ObjectMapper objectMapper;
+
+        private Ndjson(Writer out, ObjectMapper objectMapper) {
+            super(out);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        String contentType() { return "application/x-ndjson"; }
+
+        @Override
+        String extension() { return "ndjson"; }
+
+        @Override
+        void write(CustomerOutputDto dto) {
+            try {
+                out.write(objectMapper.writeValueAsString(dto));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private static final class Csv extends CustomerExportWriter {
+
+        private Csv(Writer out) {
+            super(out);
+        }
+
+        @Override
+        String contentType() { return "text/csv"; }
+
+        @Override
+        String extension() { return "csv"; }
+
+        @Override
+        void begin() {
+            line("id", "firstName", "lastName", "email");
+        }
+
+        @Override
+        void write(CustomerOutputDto dto) {
+            line(String.valueOf(dto.id()), dto.firstName(), dto.lastName(), dto.email());
+        }
+
+        private void line(String... values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        out.write(',');
+                    }
+                    out.write(escape(values[i]));
+                }
+                out.write("\r\n");
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        // Entre comillas sólo si hace falta; las comillas internas se duplican
+        private static String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
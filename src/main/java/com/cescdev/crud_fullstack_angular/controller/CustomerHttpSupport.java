@@ -0,0 +1,188 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.cescdev.crud_fullstack_angular.exception.PreconditionFailedException;
+import com.cescdev.crud_fullstack_angular.service.CountMode;
+import com.cescdev.crud_fullstack_angular.service.CustomerCursor;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Traducción de parámetros y cabeceras HTTP común a CustomerController (MVC)
+ * y ReactiveCustomerController (WebFlux), para que ambas variantes respondan igual.
+ */
+final class CustomerHttpSupport {
+
+    // Tamaño máximo de página en modo cursor (mismo límite que Spring Data para Pageable)
+    static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    // Máximo de sugerencias por petición de autocompletado
+    static final int MAX_SUGGEST_LIMIT = 50;
+    // Máximo de cambios por respuesta de /changes
+    static final int MAX_CHANGES_LIMIT = 1000;
+    // Espera máxima del long-poll de /changes, por debajo del timeout asíncrono por defecto (30 s)
+    static final int MAX_CHANGES_WAIT_SECONDS = 25;
+
+    private CustomerHttpSupport() {
+    }
+
+    /**
+     * Traduce el parámetro ?count= a CountMode ("exact", "none" o "approx").
+     */
+
+    static CountMode toCountMode(String count) {
+        return switch (count.toLowerCase(Locale.ROOT)) {
+            case "exact" -> CountMode.EXACT;
+            case "none" -> CountMode.NONE;
+            case "approx", "approximate" -> CountMode.APPROXIMATE;
+            default -> throw new BadRequestException("Modo de conteo no válido: " + count);
+        };
+    }
+
+    /**
+     * Traduce el parámetro ?orderBy= del modo cursor ("lastName" o, por defecto, id).
+     */
+
+    static CustomerCursor.Order toCursorOrder(String orderBy) {
+        return "lastName".equals(orderBy)
+                ? CustomerCursor.Order.LAST_NAME
+                : CustomerCursor.Order.ID;
+    }
+
+    /**
+     * Acota el ?size= del modo cursor a [1, MAX_CURSOR_PAGE_SIZE].
+     */
+
+    static int cursorPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+    }
+
+    /**
+     * Acota el ?limit= del autocompletado a [1, MAX_SUGGEST_LIMIT].
+     */
+
+    static int suggestLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_SUGGEST_LIMIT));
+    }
+
+    /**
+     * Exige el ?epoch= de /changes cuando se pide desde una secuencia: sin él no se
+     * puede saber si since es de esta instancia.
+     */
+
+    static String changesEpoch(String epoch) {
+        if (epoch == null || epoch.isBlank()) {
+            throw new BadRequestException("Falta el parámetro epoch (el de la respuesta de la que sale since)");
+        }
+        return epoch;
+    }
+
+    /**
+     * Valida el ?since= de /changes (no puede ser negativo).
+     */
+
+    static long changesSince(long since) {
+        if (since < 0) {
+            throw new BadRequestException("Secuencia no válida: " + since);
+        }
+        return since;
+    }
+
+    /**
+     * Acota el ?limit= de /changes a [1, MAX_CHANGES_LIMIT].
+     */
+
+    static int changesLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_CHANGES_LIMIT));
+    }
+
+    /**
+     * Acota el ?wait= (segundos) del long-poll de /changes a [0, MAX_CHANGES_WAIT_SECONDS].
+     */
+
+    static Duration changesWait(int seconds) {
+        return Duration.ofSeconds(Math.max(0, Math.min(seconds, MAX_CHANGES_WAIT_SECONDS)));
+    }
+
+    /**
+     * true si la cabecera Prefer (RFC 7240) pide respond-async: el cliente acepta
+     * un 202 con el resultado por consultar en lugar de esperar a la escritura.
+     */
+
+    static boolean respondAsync(String prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        for (String preference : prefer.split(",")) {
+            if (preference.split(";")[0].trim().equalsIgnoreCase("respond-async")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ETag fuerte de un Customer: su @Version entre comillas.
+     */
+
+    static String etag(Long version) {
+        return "\"" + (version == null ? 0L : version) + "\"";
+    }
+
+    /**
+     * ETag de los listados a partir de la versión de la tabla (cambia con cualquier
+     * escritura en esta instancia y, como mucho cada customers.list-etag.max-stale,
+     * para recoger las de otras instancias: ver CustomerTableVersion).
+     *
+     * Es débil (W/): la misma página se sirve en JSON, CBOR o Smile y comprimida
+     * o no, todas equivalentes. Además Tomcat no comprime respuestas con ETag fuerte.
+     */
+
+    static String listEtag(String tableVersion) {
+        return "W/\"" + tableVersion + "\"";
+    }
+
+    /**
+     * Versión esperada según If-Match: null si no viene o es "*" (basta con que exista).
+     * Un valor que no es un ETag nuestro nunca puede coincidir: 412.
+     */
+
+    static Long versionOf(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // cae al 412
+            }
+        }
+        throw new PreconditionFailedException("If-Match no corresponde a ninguna versión: " + value);
+    }
+
+    /**
+     * Comprueba una cabecera If-None-Match ("*", lista separada por
+     * comas o valores con prefijo W/) contra el ETag actual, fuerte o débil
+     * (comparación débil, la que pide If-None-Match).
+     */
+
+    static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        String current = opaqueTag(etag);
+        for (String candidate : header.split(",")) {
+            String value = opaqueTag(candidate.trim());
+            if (value.equals("*") || value.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,227 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.cescdev.crud_fullstack_angular.service.ImportRecord;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Lee registros de importación de un Reader de forma incremental: cada
+ * llamada a next() consume sólo lo necesario para el siguiente registro.
+ *   - ndjson: un CustomerInputDto en JSON por línea (las líneas vacías se ignoran).
+ *   - csv:    primera línea de cabecera con firstName, lastName y email (en
+ *             cualquier orden) y un cliente por línea, según RFC 4180.
+ * Un registro mal formado se devuelve como ImportRecord.unreadable y la
+ * lectura continúa con el siguiente.
+ */
+abstract class CustomerImportReader implements Iterator<ImportRecord> {
+
+    // Tope por registro: evita que un fichero corrupto (p. ej. unas comillas sin cerrar) agote la memoria
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    protected final Reader in;
+    protected final Function<CustomerInputDto, Customer> mapper;
+    private ImportRecord next;
+    private long number;
+    private boolean finished;
+
+    private CustomerImportReader(Reader in, Function<CustomerInputDto, Customer> mapper) {
+        this.in = in;
+        this.mapper = mapper;
+    }
+
+    static CustomerImportReader forFormat(String format, Reader in, ObjectMapper objectMapper,
+                                          Function<CustomerInputDto, Customer> mapper) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> new Ndjson(in, objectMapper, mapper);
+            case "csv" -> new Csv(in, mapper);
+            default -> throw new BadRequestException("Formato de importación no válido: " + format);
+        };
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = read(number + 1);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            if (next == null) {
+                finished = true;
+            } else {
+                number++;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ImportRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportRecord record = next;
+        next = null;
+        return record;
+    }
+
+    /**
+     * Lee el siguiente registro, o devuelve null al llegar al final.
+     */
+    protected abstract ImportRecord read(long number) throws IOException;
+
+    private static final class Ndjson extends CustomerImportReader {
+        private final ObjectMapper objectMapper;
+
+        private Ndjson(Reader in, ObjectMapper objectMapper, Function<CustomerInputDto, Customer> mapper) {
+            super(in, mapper);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected ImportRecord read(long number) throws IOException {
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                int c = in.read();
+                if (c == -1 && line.isEmpty()) {
+                    return null;
+                }
+                if (c == -1 || c == '\n') {
+                    if (line.toString().isBlank()) {
+                        line.setLength(0);
+                        if (c == -1) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    return parse(number, line.toString());
+                }
+                if (line.length() == MAX_RECORD_CHARS) {
+                    throw new BadRequestException("El registro " + number + " supera " + MAX_RECORD_CHARS + " caracteres");
+                }
+                line.append((char) c);
+            }
+        }
+
+        private ImportRecord parse(long number, String line) {
+            try {
+                return ImportRecord.of(number, mapper.apply(objectMapper.readValue(line, CustomerInputDto.class)));
+            } catch (JsonProcessingException ex) {
+                return ImportRecord.unreadable(number, "JSON no válido: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class Csv extends CustomerImportReader {
+        private int firstNameColumn = -1;
+        private int lastNameColumn = -1;
+        private int emailColumn = -1;
+        private int columns;
+
+        private Csv(Reader in, Function<CustomerInputDto, Customer> mapper) {
+            super(in, mapper);
+        }
+
+        @Override
+        protected ImportRecord read(long number) throws IOException {
+            if (columns == 0) {
+                readHeader();
+            }
+            List<String> fields = readFields(number);
+            while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+                fields = readFields(number); // líneas vacías
+            }
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns) {
+                return ImportRecord.unreadable(number,
+                        "Se esperaban " + columns + " columnas y hay " + fields.size());
+            }
+
+            CustomerInputDto dto = new CustomerInputDto();
+            dto.setFirstName(fields.get(firstNameColumn));
+            dto.setLastName(fields.get(lastNameColumn));
+            dto.setEmail(fields.get(emailColumn));
+            return ImportRecord.of(number, mapper.apply(dto));
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = readFields(0);
+            if (header == null) {
+                throw new BadRequestException("El CSV está vacío");
+            }
+            for (int i = 0; i < header.size(); i++) {
+                switch (header.get(i).trim()) {
+                    case "firstName" -> firstNameColumn = i;
+                    case "lastName" -> lastNameColumn = i;
+                    case "email" -> emailColumn = i;
+                    default -> { } // columnas extra (p. ej. id de una exportación) se ignoran
+                }
+            }
+            if (firstNameColumn < 0 || lastNameColumn < 0 || emailColumn < 0) {
+                throw new BadRequestException("La cabecera CSV debe incluir firstName, lastName y email");
+            }
+            columns = header.size();
+        }
+
+        /**
+         * Lee un registro CSV (puede ocupar varias líneas si hay comillas).
+         * Devuelve null al final del fichero.
+         */
+        private List<String> readFields(long number) throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int length = 0;
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1) {
+                if (++length > MAX_RECORD_CHARS) {
+                    throw new BadRequestException("El registro " + number + " supera " + MAX_RECORD_CHARS + " caracteres");
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        int peek = in.read();
+                        if (peek == '"') {
+                            field.append('"'); // comillas escapadas
+                        } else {
+                            quoted = false;
+                            c = peek;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
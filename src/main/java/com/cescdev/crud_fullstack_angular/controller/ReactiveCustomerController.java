@@ -0,0 +1,267 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.dto.ChangeFeed;
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerPatchDto;
+import com.cescdev.crud_fullstack_angular.dto.PageResponse;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapper;
+import com.cescdev.crud_fullstack_angular.service.CountMode;
+import com.cescdev.crud_fullstack_angular.service.CustomerChangeLog;
+import com.cescdev.crud_fullstack_angular.service.CustomerCursor;
+import com.cescdev.crud_fullstack_angular.service.CustomerSort;
+import com.cescdev.crud_fullstack_angular.service.ReactiveCustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static com.cescdev.crud_fullstack_angular.controller.CustomerHttpSupport.*;
+
+/**
+ * Variante WebFlux de CustomerController (perfil "reactive"): mismo contrato
+ * /api/customers (rutas, parámetros, códigos, ETags y cuerpos), servido sin
+ * bloquear hilos sobre ReactiveCustomerService.
+ *
+ * Incluye el CRUD, los listados (página y cursor), la exportación en
+ * streaming y el registro de cambios; los endpoints de lotes, importación y
+ * autocompletado sólo existen en la variante MVC.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/customers")
+@CrossOrigin(origins = "http://localhost:4200", exposedHeaders = HttpHeaders.ETAG)
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService customerService;
+    // Para serializar las líneas NDJSON con la misma configuración que el resto del API
+    private final ObjectMapper objectMapper;
+    // Conversión entidad ↔ DTO generada por MapStruct
+    private final CustomerMapper customerMapper;
+    // Registro de cambios para /changes
+    private final CustomerChangeLog changeLog;
+
+    public ReactiveCustomerController(ReactiveCustomerService customerService, ObjectMapper objectMapper,
+                                      CustomerMapper customerMapper, CustomerChangeLog changeLog) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.customerMapper = customerMapper;
+        this.changeLog = changeLog;
+    }
+
+    /**
+     * POST /api/customers: 201 + Location + ETag + CustomerOutputDto.
+     */
+
+    @PostMapping
+    public Mono<ResponseEntity<CustomerOutputDto>> save(
+            @RequestBody @Valid CustomerInputDto inputDto,
+            UriComponentsBuilder uriBuilder
+    ) {
+        return customerService.save(customerMapper.toEntity(inputDto))
+                .map(saved -> {
+                    URI location = uriBuilder.path("/api/customers/{id}").buildAndExpand(saved.getId()).toUri();
+                    return ResponseEntity.created(location)
+                            .eTag(etag(saved.getVersion()))
+                            .body(customerMapper.toDto(saved));
+                });
+    }
+
+    /**
+     * GET /api/customers: PageResponse con o sin totales (count=none), con ETag de
+     * tabla, en JSON, CBOR o Smile según el Accept, y el orden de CustomerSort
+     * (ver CustomerController.findAll).
+     */
+
+    @GetMapping
+    public Mono<ResponseEntity<PageResponse<CustomerOutputDto>>> findAll(
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "exact") String count,
+            @PageableDefault(size = 5) Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        CountMode countMode = toCountMode(count);
+        Pageable sorted = CustomerSort.managed(pageable);
+
+        // La versión se lee ANTES de consultar (ver CustomerController.findAll)
+        String listTag = listEtag(customerService.currentTableVersion());
+        if (matches(ifNoneMatch, listTag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(listTag).varyBy(HttpHeaders.ACCEPT).build());
+        }
+
+        Mono<Slice<CustomerOutputDto>> page = (name != null && !name.isBlank())
+                ? customerService.search(name, sorted, countMode)
+                : customerService.findAll(sorted, countMode);
+        return page.map(body -> ResponseEntity.ok()
+                .eTag(listTag).varyBy(HttpHeaders.ACCEPT).body(PageResponse.of(body)));
+    }
+
+    /**
+     * GET /api/customers?after=...: página por cursor (keyset).
+     */
+
+    @GetMapping(params = "after")
+    public Mono<ResponseEntity<CursorPage<CustomerOutputDto>>> findAllAfter(
+            @RequestParam String after,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "id") String orderBy,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        String listTag = listEtag(customerService.currentTableVersion());
+        if (matches(ifNoneMatch, listTag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(listTag).varyBy(HttpHeaders.ACCEPT).build());
+        }
+
+        CustomerCursor cursor = after.isBlank() ? null : CustomerCursor.decode(after);
+        CustomerCursor.Order order = toCursorOrder(orderBy);
+        int pageSize = cursorPageSize(size);
+
+        Mono<CursorPage<CustomerOutputDto>> page = (name != null && !name.isBlank())
+                ? customerService.searchAfter(name, cursor, order, pageSize)
+                : customerService.findAllAfter(cursor, order, pageSize);
+        return page.map(body -> ResponseEntity.ok().eTag(listTag).varyBy(HttpHeaders.ACCEPT).body(body));
+    }
+
+    /**
+     * GET /api/customers/export?format=ndjson|csv&name=...
+     *
+     * Streaming con contrapresión: cada fila se lee de la BBDD cuando la red
+     * puede aceptar más datos, así que un cliente lento frena la consulta en
+     * lugar de acumular filas en memoria.
+     */
+
+    @GetMapping("/export")
+    public Mono<Void> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String name,
+            ServerHttpResponse response
+    ) {
+        // El writer escribe en un buffer que se vacía tras cada fila
+        StringWriter buffer = new StringWriter();
+        CustomerExportWriter writer = CustomerExportWriter.forFormat(format, buffer, objectMapper);
+
+        response.getHeaders().setContentType(MediaType.parseMediaType(writer.contentType() + ";charset=UTF-8"));
+        response.getHeaders().set(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"customers." + writer.extension() + "\"");
+
+        Flux<String> chunks = Flux.concat(
+                Mono.fromCallable(() -> {
+                    writer.begin();
+                    return drain(buffer);
+                }),
+                customerService.export(name).map(dto -> {
+                    writer.write(dto);
+                    return drain(buffer);
+                }));
+        Flux<DataBuffer> body = chunks
+                .filter(chunk -> !chunk.isEmpty())
+                .map(chunk -> response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+        return response.writeWith(body);
+    }
+
+    /**
+     * GET /api/customers/changes?epoch=&since=&limit=&wait=: ChangeFeed o 410 (ver CustomerController).
+     * Si se cancela la petición durante el long-poll, la espera se descarta.
+     */
+
+    @GetMapping("/changes")
+    public Mono<ChangeFeed> changes(
+            @RequestParam(required = false) String epoch,
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "0") int wait
+    ) {
+        if (since == null) {
+            return Mono.fromSupplier(changeLog::current);
+        }
+        return Mono.defer(() -> Mono.fromFuture(
+                changeLog.await(changesEpoch(epoch), changesSince(since), changesLimit(limit), changesWait(wait))));
+    }
+
+    /**
+     * GET /api/customers/{id}: 200 + ETag, 304 si coincide If-None-Match, o 404.
+     */
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CustomerOutputDto>> findById(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        return customerService.findById(id).map(c -> {
+            String tag = etag(c.getVersion());
+            if (matches(ifNoneMatch, tag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).<CustomerOutputDto>build();
+            }
+            return ResponseEntity.ok().eTag(tag).body(customerMapper.toDto(c));
+        });
+    }
+
+    /**
+     * PUT /api/customers/{id}: un único UPDATE; 404 si no existe, 412 si If-Match no coincide.
+     */
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<CustomerOutputDto>> update(
+            @PathVariable Integer id,
+            @RequestBody @Valid CustomerInputDto inputDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Long expectedVersion = versionOf(ifMatch);
+        return customerService.updateById(id, customerMapper.toEntity(inputDto), expectedVersion)
+                .map(updated -> ResponseEntity.ok().eTag(etag(updated.getVersion()))
+                        .body(customerMapper.toDto(updated)));
+    }
+
+    /**
+     * PATCH /api/customers/{id}: sólo los campos presentes; 200 + ETag nuevo.
+     */
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<CustomerOutputDto>> patch(
+            @PathVariable Integer id,
+            @RequestBody @Valid CustomerPatchDto patchDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Long expectedVersion = versionOf(ifMatch);
+        return customerService.patch(id, customerMapper.toEntity(patchDto), expectedVersion)
+                .map(patched -> ResponseEntity.ok()
+                        .eTag(etag(patched.getVersion()))
+                        .body(customerMapper.toDto(patched)));
+    }
+
+    /**
+     * DELETE /api/customers/{id}: 204, o 404 si no existía.
+     */
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteById(@PathVariable Integer id) {
+        return customerService.deleteById(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static String drain(StringWriter buffer) {
+        String chunk = buffer.toString();
+        buffer.getBuffer().setLength(0);
+        return chunk;
+    }
+}
@@ -0,0 +1,80 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * En WebFlux Spring Boot no registra el soporte web de Spring Data: lo añadimos
+ * para que ReactiveCustomerController reciba Pageable (page, size, sort,
+ * @PageableDefault) exactamente igual que CustomerController.
+ *
+ * Tampoco registra los códecs de CBOR (Smile sí): sin ellos Accept: application/cbor
+ * daría 406 aquí y 200 en la variante MVC, que los añade al ver jackson-dataformat-cbor.
+ * Los códecs propios se consultan antes que los de por defecto, así que se registra
+ * también el de JSON, delante: sin Accept (o si acepta cualquier tipo) la
+ * respuesta sigue siendo JSON.
+ *
+ * El servidor lo elige Spring Boot: con Tomcat en el classpath, WebFlux corre
+ * sobre Tomcat con E/S no bloqueante de Servlet. No forzamos Netty porque con
+ * r2dbc-h2 (que ejecuta las consultas en el hilo que se suscribe) los event
+ * loops se quedaban bloqueados a partir de ~64 clientes concurrentes.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public ReactiveWebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactivePageableHandlerMethodArgumentResolver());
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+        configurer.customCodecs().register(new ValueCborEncoder());
+        configurer.customCodecs().register(new Jackson2CborDecoder());
+    }
+
+    /**
+     * Jackson2CborEncoder sólo sabe codificar valores sueltos (encodeValue) y
+     * encode() lanza excepción, pero el servidor siempre llama a encode(). Cada
+     * cuerpo se codifica como un único valor CBOR (un Flux, como array).
+     */
+    private static final class ValueCborEncoder extends Jackson2CborEncoder {
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints)).flux();
+        }
+    }
+}
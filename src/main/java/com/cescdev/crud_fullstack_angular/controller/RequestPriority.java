@@ -0,0 +1,27 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prioridad de un endpoint de CustomerController ante sobrecarga (ver
+ * ConcurrencyLimitInterceptor). Sin anotar: WRITE para POST/PUT/PATCH/DELETE
+ * y SEARCH para GET.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@interface RequestPriority {
+
+    Level value();
+
+    enum Level {
+        // Escrituras: lo último en descartarse
+        WRITE,
+        // Lecturas puntuales y baratas (por ID, autocompletado)
+        LOOKUP,
+        // Listados y búsquedas: lo primero en descartarse
+        SEARCH
+    }
+}
@@ -0,0 +1,42 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+/**
+ * Resultado de un elemento dentro de una operación por lotes.
+ *   - index:  posición del elemento en la petición (empezando en 0).
+ *   - id:     ID del Customer afectado (el generado, en las altas).
+ *   - status: qué ha pasado con el elemento.
+ *   - error:  motivo del fallo (null si ha ido bien).
+ */
+public class BatchItemResult {
+
+    public enum Status { CREATED, UPDATED, DELETED, NOT_FOUND, INVALID, DUPLICATE }
+
+    private final int index;
+    private final Integer id;
+    private final Status status;
+    private final String error;
+
+    public BatchItemResult(int index, Integer id, Status status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BatchItemResult ok(int index, Integer id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult failed(int index, Integer id, Status status, String error) {
+        return new BatchItemResult(index, id, status, error);
+    }
+
+    public int getIndex() { return index; }
+    public Integer getId() { return id; }
+    public Status getStatus() { return status; }
+    public String getError() { return error; }
+
+    public boolean isSuccess() {
+        return status == Status.CREATED || status == Status.UPDATED || status == Status.DELETED;
+    }
+}
@@ -0,0 +1,27 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una operación por lotes: un BatchItemResult por elemento
+ * recibido, en el mismo orden, más los totales.
+ * Un elemento erróneo no aborta el resto del lote.
+ */
+public class BatchResult {
+    private final List<BatchItemResult> items;
+
+    public BatchResult(List<BatchItemResult> items) {
+        this.items = items;
+    }
+
+    public List<BatchItemResult> getItems() { return items; }
+    public int getTotal() { return items.size(); }
+
+    public long getSucceeded() {
+        return items.stream().filter(BatchItemResult::isSuccess).count();
+    }
+
+    public long getFailed() {
+        return getTotal() - getSucceeded();
+    }
+}
@@ -0,0 +1,14 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de GET /api/customers/changes.
+ *   - changes: cambios posteriores a ?since=, en orden de secuencia.
+ *   - epoch: instancia (y arranque) a la que pertenece la secuencia; se envía
+ *     como ?epoch= junto con ?since=.
+ *   - lastSeq: valor a enviar como ?since= en la siguiente petición.
+ *   - hasMore: true si hay más cambios de los que cabían en ?limit=.
+ */
+public record ChangeFeed(List<CustomerChange> changes, String epoch, long lastSeq, boolean hasMore) {
+}
@@ -0,0 +1,36 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados para la paginación por cursor (keyset).
+ *
+ * A diferencia de Page, no incluye totalElements ni totalPages:
+ * evitar el count(*) es precisamente lo que la hace barata.
+ *   - content:    elementos de la página.
+ *   - nextCursor: token a enviar en ?after= para la siguiente página
+ *                 (null si no hay más).
+ *   - hasNext:    true si existen más elementos tras esta página.
+ */
+public class CursorPage<T> {
+    private final List<T> content;
+    private final String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public int getSize() { return content.size(); }
+    public boolean isHasNext() { return nextCursor != null; }
+
+    /**
+     * Convierte el contenido conservando el cursor (equivalente a Page.map).
+     */
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPage<>(content.stream().<U>map(converter).toList(), nextCursor);
+    }
+}
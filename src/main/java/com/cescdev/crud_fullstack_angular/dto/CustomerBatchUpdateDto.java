@@ -0,0 +1,15 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Elemento de PUT /api/customers/batch: los datos de CustomerInputDto más el ID.
+ */
+public class CustomerBatchUpdateDto extends CustomerInputDto {
+    @NotNull(message = "El id no puede estar vacío")
+    private Integer id;
+
+    // Getters y setters
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+}
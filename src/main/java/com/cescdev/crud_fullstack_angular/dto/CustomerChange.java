@@ -0,0 +1,17 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import com.cescdev.crud_fullstack_angular.service.CustomerChangedEvent;
+
+import java.time.Instant;
+
+/**
+ * Una entrada del registro de cambios (GET /api/customers/changes).
+ *   - seq:      número de secuencia, creciente y sin huecos.
+ *   - type:     CREATED, UPDATED o DELETED.
+ *   - id:       ID del Customer afectado.
+ *   - customer: estado tras el cambio (null en DELETED).
+ *   - at:       momento en que se registró.
+ */
+public record CustomerChange(long seq, CustomerChangedEvent.Type type, Integer id,
+                             CustomerOutputDto customer, Instant at) {
+}
@@ -0,0 +1,34 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Cuerpo de PATCH /api/customers/{id}: todos los campos son opcionales y
+ * sólo se modifican los que vienen (null = no tocar). Los que vienen se
+ * validan con las mismas reglas que CustomerInputDto.
+ */
+public class CustomerPatchDto {
+    @Pattern(regexp = ".*\\S.*", message = "El nombre no puede estar vacío")
+    @Size(max = 50, message = "El nombre no puede tener más de 50 caracteres")
+    private String firstName;
+
+    @Pattern(regexp = ".*\\S.*", message = "El apellido no puede estar vacío")
+    @Size(max = 50, message = "El apellido no puede tener más de 50 caracteres")
+    private String lastName;
+
+    @Pattern(regexp = ".*\\S.*", message = "El email no puede estar vacío")
+    @Email(message = "El formato del email no es válido")
+    private String email;
+
+    // Getters y setters
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String fn) { this.firstName = fn; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String ln) { this.lastName = ln; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String e) { this.email = e; }
+}
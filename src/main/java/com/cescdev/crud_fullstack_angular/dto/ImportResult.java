@@ -0,0 +1,53 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import java.util.List;
+
+/**
+ * Resumen de una importación masiva.
+ *   - processed:  registros leídos del fichero.
+ *   - created / updated / skipped / invalid: reparto por resultado.
+ *   - aborted:    true si se detuvo por la política FAIL.
+ *   - elapsedMillis / rowsPerSecond: rendimiento de la importación.
+ *   - errors:     detalle de los primeros registros fallidos (acotado).
+ */
+public class ImportResult {
+    private final long processed;
+    private final long created;
+    private final long updated;
+    private final long skipped;
+    private final long invalid;
+    private final boolean aborted;
+    private final long elapsedMillis;
+    private final List<ImportError> errors;
+
+    public ImportResult(long processed, long created, long updated, long skipped, long invalid,
+                        boolean aborted, long elapsedMillis, List<ImportError> errors) {
+        this.processed = processed;
+        this.created = created;
+        this.updated = updated;
+        this.skipped = skipped;
+        this.invalid = invalid;
+        this.aborted = aborted;
+        this.elapsedMillis = elapsedMillis;
+        this.errors = errors;
+    }
+
+    public long getProcessed() { return processed; }
+    public long getCreated() { return created; }
+    public long getUpdated() { return updated; }
+    public long getSkipped() { return skipped; }
+    public long getInvalid() { return invalid; }
+    public boolean isAborted() { return aborted; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<ImportError> getErrors() { return errors; }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? processed : processed * 1000 / elapsedMillis;
+    }
+
+    /**
+     * Registro que no se ha podido importar.
+     */
+    public record ImportError(long record, String status, String message) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página de resultados de GET /api/customers, en lugar de serializar PageImpl
+ * tal cual (con pageable, sort, empty... y una forma que cambia entre versiones
+ * de Spring Data).
+ *   - content:          elementos de la página.
+ *   - number, size:     página pedida (desde 0) y tamaño de página.
+ *   - numberOfElements: elementos en esta página.
+ *   - totalElements, totalPages: sólo en Page (count=exact|approx); con
+ *                       count=none no se calculan y no aparecen.
+ *   - first, last:      si es la primera / la última página.
+ * Los nombres son los que ya tenía Page, así que los clientes no cambian.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PageResponse<T>(
+        List<T> content,
+        int number,
+        int size,
+        int numberOfElements,
+        Long totalElements,
+        Integer totalPages,
+        boolean first,
+        boolean last
+) {
+
+    public static <T> PageResponse<T> of(Slice<T> slice) {
+        Long totalElements = null;
+        Integer totalPages = null;
+        if (slice instanceof Page<T> page) {
+            totalElements = page.getTotalElements();
+            totalPages = page.getTotalPages();
+        }
+        return new PageResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                slice.getNumberOfElements(), totalElements, totalPages, slice.isFirst(), slice.isLast());
+    }
+}
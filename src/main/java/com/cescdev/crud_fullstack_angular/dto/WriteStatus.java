@@ -0,0 +1,22 @@
+package com.cescdev.crud_fullstack_angular.dto;
+
+/**
+ * Estado de una escritura aceptada en diferido (POST/PUT con Prefer: respond-async),
+ * consultable en GET /api/customers/writes/{trackingId}.
+ *   - trackingId: identificador devuelto en la respuesta 202.
+ *   - status:     PENDING mientras está en la cola; después, el resultado.
+ *   - id:         ID del Customer (el generado, en las altas); null si aún no se conoce.
+ *   - error:      motivo del fallo (null si ha ido bien o sigue pendiente).
+ */
+public record WriteStatus(String trackingId, Status status, Integer id, String error) {
+
+    public enum Status { PENDING, CREATED, UPDATED, NOT_FOUND, INVALID, DUPLICATE, FAILED }
+
+    public static WriteStatus pending(String trackingId, Integer id) {
+        return new WriteStatus(trackingId, Status.PENDING, id, null);
+    }
+
+    public static WriteStatus of(String trackingId, BatchItemResult result) {
+        return new WriteStatus(trackingId, Status.valueOf(result.getStatus().name()), result.getId(), result.getError());
+    }
+}
@@ -4,9 +4,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "customers")
+@DynamicUpdate // Los UPDATE sólo incluyen las columnas modificadas (PATCH)
+@Cacheable // Caché de segundo nivel (región "customers", ver HibernateCacheConfig)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
+// El esquema lo crean las migraciones de db/migration; los índices se repiten aquí
+// como documentación (Hibernate sólo valida tablas y columnas)
+@Table(name = "customers", indexes = {
+        // Sirve el recorrido por cursor ordenado por (lastName, id) sin filesort
+        @Index(name = "idx_customers_last_name_id", columnList = "lastName, id"),
+        // Órdenes de ?sort= con sus desempates (ver CustomerSort)
+        @Index(name = "idx_customers_last_name_first_name_id", columnList = "lastName, firstName, id"),
+        @Index(name = "idx_customers_first_name_last_name_id", columnList = "firstName, lastName, id")
+})
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +39,12 @@ public class Customer {
     @Column(unique = true, nullable = false)
     private String email;
 
+    // Control de concurrencia optimista: Hibernate lo incrementa en cada UPDATE
+    // y es la base del ETag de /api/customers/{id}
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public Customer() {
     }
 
@@ -66,4 +86,12 @@ public class Customer {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
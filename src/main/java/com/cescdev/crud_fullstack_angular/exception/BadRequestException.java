@@ -0,0 +1,10 @@
+package com.cescdev.crud_fullstack_angular.exception;
+
+public class BadRequestException extends RuntimeException{
+    private String message;
+    public BadRequestException(String message){
+        super(message);
+        this.message = message;
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.cescdev.crud_fullstack_angular.exception;
+
+public class GoneException extends RuntimeException{
+    public GoneException(String message){
+        super(message);
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.cescdev.crud_fullstack_angular.exception;
+
+public class PreconditionFailedException extends RuntimeException{
+    private String message;
+    public PreconditionFailedException(String message){
+        super(message);
+        this.message = message;
+    }
+
+}
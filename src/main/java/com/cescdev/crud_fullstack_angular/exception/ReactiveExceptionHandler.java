@@ -0,0 +1,89 @@
+package com.cescdev.crud_fullstack_angular.exception;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Equivalente WebFlux de GlobalExceptionHandler (perfil "reactive"): mismos
+ * códigos HTTP y mismo ErrorDetails, con path en el formato "uri=/api/..."
+ * que genera WebRequest.getDescription(false) en MVC.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorDetails> handleResourceNotFoundException(
+            ResourceNotFoundException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage(), request, "NOT_FOUND");
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorDetails> handleBadRequestException(
+            BadRequestException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage(), request, "BAD_REQUEST");
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDetails> handlePreconditionFailedException(
+            PreconditionFailedException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request, "PRECONDITION_FAILED");
+    }
+
+    @ExceptionHandler(GoneException.class)
+    public ResponseEntity<ErrorDetails> handleGoneException(
+            GoneException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.GONE, ex.getMessage(), request, "GONE");
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailure(
+            ObjectOptimisticLockingFailureException ex,
+            ServerHttpRequest request
+    ) {
+        return error(HttpStatus.CONFLICT, "El cliente ha sido modificado por otra petición; vuelve a leerlo",
+                request, "VERSION_CONFLICT");
+    }
+
+    // En WebFlux los fallos de @Valid llegan como WebExchangeBindException
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorDetails> handleValidationException(
+            WebExchangeBindException ex,
+            ServerHttpRequest request
+    ) {
+        String message = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        return error(HttpStatus.BAD_REQUEST, message, request, "VALIDATION_FAILED");
+    }
+
+    private static ResponseEntity<ErrorDetails> error(HttpStatus status, String message,
+                                                      ServerHttpRequest request, String errorCode) {
+        ErrorDetails error = new ErrorDetails(
+                LocalDateTime.now(),
+                message,
+                "uri=" + request.getPath().value(),
+                errorCode
+        );
+        return new ResponseEntity<>(error, status);
+    }
+}
@@ -0,0 +1,17 @@
+package com.cescdev.crud_fullstack_angular.exception;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException{
+    // Cuánto debería esperar el cliente antes de reintentar (cabecera Retry-After)
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter){
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,91 @@
+package com.cescdev.crud_fullstack_angular.mapper;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerBatchUpdateDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerPatchDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import org.mapstruct.BeanMapping;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Conversiones entre Customer y sus DTO, generadas por MapStruct en tiempo de
+ * compilación (CustomerMapperImpl en target/generated-sources): código plano
+ * de getters/setters, sin reflexión, equivalente al que se escribía a mano.
+ *
+ * componentModel = "spring": la implementación generada es un bean inyectable.
+ */
+@Mapper(componentModel = "spring")
+public interface CustomerMapper {
+
+    /**
+     * DTO de entrada → entidad nueva. El ID se genera en el INSERT y la versión la pone JPA.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Customer toEntity(CustomerInputDto dto);
+
+    /**
+     * Elemento de PUT /batch → entidad con su ID (la versión la gestiona el UPDATE).
+     */
+    @Mapping(target = "version", ignore = true)
+    Customer toEntity(CustomerBatchUpdateDto dto);
+
+    /**
+     * Cuerpo de PATCH → entidad con sólo los campos a cambiar (el resto, null).
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Customer toEntity(CustomerPatchDto dto);
+
+    /**
+     * Entidad → DTO de salida (record).
+     */
+    CustomerOutputDto toDto(Customer customer);
+
+    /**
+     * Lista de entidades → lista de DTOs, con un único ArrayList del tamaño exacto.
+     */
+    List<CustomerOutputDto> toDtoList(List<Customer> customers);
+
+    /**
+     * Actualización en sitio: copia los datos del DTO sobre una entidad existente.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntity(CustomerInputDto dto, @MappingTarget Customer customer);
+
+    /**
+     * Actualización parcial en sitio: sólo copia los campos no nulos de changes.
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void patchEntity(Customer changes, @MappingTarget Customer customer);
+
+    /**
+     * Página de entidades → página de DTOs, conservando paginación y total.
+     */
+    default Page<CustomerOutputDto> toDtoPage(Page<Customer> page) {
+        return new PageImpl<>(toDtoList(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Slice de entidades → Slice de DTOs (Page si la entrada lo era, para no perder el total).
+     */
+    default Slice<CustomerOutputDto> toDtoSlice(Slice<Customer> slice) {
+        if (slice instanceof Page<Customer> page) {
+            return toDtoPage(page);
+        }
+        return new SliceImpl<>(toDtoList(slice.getContent()), slice.getPageable(), slice.hasNext());
+    }
+}
@@ -0,0 +1,70 @@
+package com.cescdev.crud_fullstack_angular.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Instrumentación del camino caliente, expuesta en /actuator/prometheus:
+ *   - http.server.requests: latencia por endpoint (Spring Boot; histogramas en application.properties).
+ *   - customers.service: timers por método de CustomerService (@Timed en CustomerServiceImpl).
+ *   - customers.sql.*: sentencias SQL globales y por petición, y slow-query log.
+ *   - customers.coalescing.calls: lecturas que lanzan consulta (leader) o se unen a
+ *     una en vuelo (follower); ver CustomerReadCoalescer.
+ *   - customers.limits.*: límite adaptativo, peticiones en curso y rechazadas por
+ *     endpoint; ver ConcurrencyLimitInterceptor.
+ *   - hikaricp.connections.acquire: espera por conexión del pool (Spring Boot + Hikari;
+ *     también las pools replica-N de ReplicaPool).
+ *   - customers.replicas.connections / customers.replicas.healthy: a dónde van las
+ *     lecturas con réplicas activadas; ver ReplicaPool.
+ *   - hibernate.second.level.cache.requests / hibernate.cache.query.requests: aciertos y
+ *     fallos de la caché de segundo nivel y de consultas (Spring Boot + hibernate-micrometer).
+ *
+ * Con customers.metrics.sql.enabled=false no se envuelve el DataSource.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Envuelve el DataSource con datasource-proxy para medir cada sentencia.
+     * Se registra como BeanPostProcessor para que el pool de Hikari siga siendo
+     * el de la autoconfiguración (y sus métricas).
+     */
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourcePostProcessor(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${customers.metrics.sql.enabled:true}") boolean enabled,
+            @Value("${customers.metrics.sql.slow-threshold:200ms}") Duration slowThreshold
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SqlMetricsListener(meterRegistry.getObject(), slowThreshold))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlRequestMetricsFilter> sqlRequestMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlRequestMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlRequestMetricsFilter(meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
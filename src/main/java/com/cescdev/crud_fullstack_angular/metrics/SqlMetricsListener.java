@@ -0,0 +1,96 @@
+package com.cescdev.crud_fullstack_angular.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mide cada ejecución JDBC que pasa por el DataSource (JPA y JdbcTemplate):
+ *   - customers.sql.statements: timer por tipo (select, insert, update, delete, other).
+ *   - Suma la sentencia al acumulado de la petición en curso (SqlRequestStats).
+ *   - Slow-query log: si tarda más que el umbral, registra el SQL generado
+ *     (sin parámetros, para no volcar datos personales) en el logger
+ *     com.cescdev.crud_fullstack_angular.metrics.SlowQuery.
+ */
+class SqlMetricsListener implements QueryExecutionListener {
+
+    // datasource-proxy mide en ms; guardamos el inicio en ns para no perder las consultas rápidas
+    private static final String START_NANOS = "customers.sql.start";
+
+    private static final Logger slowQueryLog =
+            LoggerFactory.getLogger("com.cescdev.crud_fullstack_angular.metrics.SlowQuery");
+
+    private final Timer selects;
+    private final Timer inserts;
+    private final Timer updates;
+    private final Timer deletes;
+    private final Timer others;
+    private final long slowThresholdMillis;
+
+    SqlMetricsListener(MeterRegistry meterRegistry, Duration slowThreshold) {
+        this.selects = timer(meterRegistry, "select");
+        this.inserts = timer(meterRegistry, "insert");
+        this.updates = timer(meterRegistry, "update");
+        this.deletes = timer(meterRegistry, "delete");
+        this.others = timer(meterRegistry, "other");
+        this.slowThresholdMillis = slowThreshold.toMillis();
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String type) {
+        return Timer.builder("customers.sql.statements")
+                .description("Ejecuciones JDBC")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = start != null
+                ? System.nanoTime() - start
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        // Un lote JDBC cuenta como tantas sentencias como filas lleva
+        int count = execInfo.isBatch() ? Math.max(execInfo.getBatchSize(), 1) : 1;
+        String firstSql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+
+        timerFor(firstSql).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        SqlRequestStats.record(count, elapsedNanos);
+
+        if (elapsedMillis >= slowThresholdMillis && slowQueryLog.isWarnEnabled()) {
+            String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+            slowQueryLog.warn("Consulta lenta ({} ms{}): {}", elapsedMillis,
+                    execInfo.isBatch() ? ", lote de " + count : "", sql);
+        }
+    }
+
+    private Timer timerFor(String sql) {
+        String head = sql.stripLeading();
+        if (head.length() > 6) {
+            head = head.substring(0, 6);
+        }
+        return switch (head.toLowerCase(Locale.ROOT)) {
+            case "select" -> selects;
+            case "insert" -> inserts;
+            case "update" -> updates;
+            case "delete" -> deletes;
+            default -> others;
+        };
+    }
+}
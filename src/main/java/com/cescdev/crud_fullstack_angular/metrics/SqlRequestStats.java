@@ -0,0 +1,41 @@
+package com.cescdev.crud_fullstack_angular.metrics;
+
+/**
+ * Acumulado de sentencias SQL de la petición HTTP en curso.
+ *
+ * SqlRequestMetricsFilter lo abre al empezar la petición y lo cierra al
+ * terminar; SqlMetricsListener le suma cada sentencia ejecutada en ese hilo.
+ * Fuera de una petición (tareas de arranque, importaciones...) no hay
+ * acumulado y las sentencias sólo cuentan en las métricas globales.
+ */
+final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long nanos;
+
+    private SqlRequestStats() {
+    }
+
+    static SqlRequestStats open() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static void record(int count, long elapsedNanos) {
+        SqlRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements += count;
+            stats.nanos += elapsedNanos;
+        }
+    }
+
+    long getStatements() { return statements; }
+    long getNanos() { return nanos; }
+}
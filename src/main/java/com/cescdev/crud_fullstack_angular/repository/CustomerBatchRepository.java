@@ -0,0 +1,158 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Escrituras por lotes sobre la tabla customers con JDBC batching real.
+ *
+ * Customer usa GenerationType.IDENTITY, así que Hibernate no puede agrupar
+ * los INSERT; aquí se hace directamente con JdbcTemplate.batchUpdate, que
+ * envía todas las filas en un único executeBatch(). En MySQL conviene añadir
+ * rewriteBatchedStatements=true a la URL para que el driver lo convierta en
+ * un INSERT multi-fila (y siga devolviendo los IDs generados).
+ *
+ * Las columnas siguen la estrategia de nombres de Spring (camelCase -> snake_case).
+ * La columna version (@Version) se mantiene a mano: 0 al insertar, +1 al actualizar;
+ * los Customer escritos salen con la version que ha quedado en la BBDD.
+ */
+@Repository
+@Profile("!reactive")
+public class CustomerBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO customers (first_name, last_name, email, version) VALUES (?, ?, ?, 0)";
+    private static final String UPDATE_SQL =
+            "UPDATE customers SET first_name = ?, last_name = ?, email = ?, version = version + 1 WHERE id = ?";
+    private static final String DELETE_SQL =
+            "DELETE FROM customers WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public CustomerBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * INSERT por lotes. Rellena el id de cada Customer con la clave generada.
+     */
+    public void insertAll(List<Customer> customers) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Customer c = customers.get(i);
+                        ps.setString(1, c.getFirstName());
+                        ps.setString(2, c.getLastName());
+                        ps.setString(3, c.getEmail());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return customers.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < customers.size(); i++) {
+            customers.get(i).setId(((Number) keys.get(i).values().iterator().next()).intValue());
+            customers.get(i).setVersion(0L);
+        }
+    }
+
+    /**
+     * UPDATE por lotes. Devuelve las filas afectadas por cada elemento (0 => no existe)
+     * y rellena la version de cada Customer actualizado con la que ha quedado en la BBDD.
+     * Debe ir en una transacción: así nadie más puede cambiar esas filas entre el
+     * UPDATE y la lectura de las versiones.
+     */
+    public int[] updateAll(List<Customer> customers) {
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Customer c = customers.get(i);
+                ps.setString(1, c.getFirstName());
+                ps.setString(2, c.getLastName());
+                ps.setString(3, c.getEmail());
+                ps.setInt(4, c.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return customers.size();
+            }
+        });
+
+        Map<Integer, Long> versions = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT id, version FROM customers WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", customers.stream().map(Customer::getId).toList()),
+                rs -> {
+                    versions.put(rs.getInt("id"), rs.getLong("version"));
+                }
+        );
+        for (int i = 0; i < customers.size(); i++) {
+            if (counts[i] > 0) {
+                customers.get(i).setVersion(versions.get(customers.get(i).getId()));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * DELETE por lotes. Devuelve las filas afectadas por cada id (0 => no existía).
+     */
+    public int[] deleteAllById(List<Integer> ids) {
+        return jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, ids.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+
+    /**
+     * Devuelve, para los emails indicados que ya existen, su id (clave en minúsculas).
+     */
+    public Map<String, Integer> findIdsByEmail(Collection<String> emails) {
+        Map<String, Integer> found = new HashMap<>();
+        if (emails.isEmpty()) {
+            return found;
+        }
+        namedJdbcTemplate.query(
+                "SELECT id, email FROM customers WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                rs -> {
+                    found.put(rs.getString("email").toLowerCase(Locale.ROOT), rs.getInt("id"));
+                }
+        );
+        return found;
+    }
+}
@@ -1,9 +1,18 @@
 package com.cescdev.crud_fullstack_angular.repository;
 
 import com.cescdev.crud_fullstack_angular.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repositorio para la entidad {@link Customer}.
@@ -14,6 +23,8 @@ import org.springframework.stereotype.Repository;
  *   - {@link JpaSpecificationExecutor<Customer>} para búsquedas dinámicas
  *     basadas en {@link org.springframework.data.jpa.domain.Specification}
  *     (paginadas o no).
+ *   - {@link CustomerRepositoryCustom} para consultas hechas a mano
+ *     (p. ej. Slice sin count(*)).
  *
  * Al estar anotado con {@link Repository}, Spring lo detecta y registra
  * como un bean de acceso a datos.
@@ -25,7 +36,63 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface CustomerRepository
         extends JpaRepository<Customer, Integer>,
-        JpaSpecificationExecutor<Customer> {
+        JpaSpecificationExecutor<Customer>,
+        CustomerRepositoryCustom {
+
+    /**
+     * findAll(Pageable) de JpaRepository, con la SELECT y el count(*) en la
+     * caché de consultas de Hibernate.
+     */
+    @Override
+    @QueryHints(value = @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), forCounting = true)
+    Page<Customer> findAll(Pageable pageable);
+
+    /**
+     * UPDATE directo, sin SELECT previo ni merge: un único viaje a la BBDD.
+     * Incrementa la versión a mano (las sentencias JPQL no pasan por @Version).
+     *
+     * @return filas afectadas: 0 si el id no existe.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Customer c SET c.firstName = :firstName, c.lastName = :lastName, c.email = :email, "
+            + "c.version = c.version + 1 WHERE c.id = :id")
+    int updateDirect(@Param("id") Integer id,
+                     @Param("firstName") String firstName,
+                     @Param("lastName") String lastName,
+                     @Param("email") String email);
+
+    /**
+     * Como updateDirect, pero sólo si la versión actual es la esperada (If-Match).
+     *
+     * @return filas afectadas: 0 si el id no existe o la versión ha cambiado.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Customer c SET c.firstName = :firstName, c.lastName = :lastName, c.email = :email, "
+            + "c.version = c.version + 1 WHERE c.id = :id AND c.version = :version")
+    int updateDirectIfVersion(@Param("id") Integer id,
+                              @Param("version") Long version,
+                              @Param("firstName") String firstName,
+                              @Param("lastName") String lastName,
+                              @Param("email") String email);
+
+    /**
+     * Versión actual de un Customer sin cargar la entidad (null si no existe).
+     * Tras updateDirect, en la misma transacción, es la que ha dejado ese UPDATE.
+     */
+    @Query("SELECT c.version FROM Customer c WHERE c.id = :id")
+    Long findVersionById(@Param("id") Integer id);
+
+    /**
+     * DELETE directo, sin cargar la entidad antes (deleteById de JPA hace SELECT + DELETE).
+     *
+     * @return filas afectadas: 0 si el id no existe.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Customer c WHERE c.id = :id")
+    int deleteDirect(@Param("id") Integer id);
 
     // Ejemplo de método derivado (no es necesario para Specifications):
     // Page<Customer> findByFirstNameContainingIgnoreCase(String name, Pageable pageable);
@@ -0,0 +1,67 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de {@link Customer} que Spring Data no ofrece de serie.
+ * La implementación vive en {@link CustomerRepositoryCustomImpl} y Spring
+ * la combina automáticamente con {@link CustomerRepository}.
+ *
+ * Los métodos con parámetro type devuelven, además de la entidad
+ * (type = Customer.class), cualquier clase con un constructor
+ * (id, firstName, lastName, email), p. ej. CustomerOutputDto: en ese caso se
+ * construye directamente desde el ResultSet (SELECT new ...), sin entidades
+ * gestionadas ni snapshots para dirty checking.
+ */
+public interface CustomerRepositoryCustom {
+
+    /**
+     * Igual que findAll(spec, pageable) pero devolviendo un {@link Slice}:
+     * pide size + 1 filas para saber si hay página siguiente y nunca
+     * lanza el SELECT count(*) asociado a Page.
+     */
+    default Slice<Customer> findSlice(Specification<Customer> spec, Pageable pageable) {
+        return findSlice(spec, pageable, Customer.class);
+    }
+
+    /**
+     * {@link #findSlice(Specification, Pageable)} con el resultado proyectado a type.
+     */
+    <T> Slice<T> findSlice(Specification<Customer> spec, Pageable pageable, Class<T> type);
+
+    /**
+     * Igual que findAll(spec, pageable) con el resultado proyectado a type.
+     * El count(*) se omite cuando la propia página ya permite deducir el total.
+     */
+    <T> Page<T> findPage(Specification<Customer> spec, Pageable pageable, Class<T> type);
+
+    /**
+     * Primeras limit filas que cumplen spec en el orden sort (limit <= 0: todas),
+     * proyectadas a type.
+     */
+    <T> List<T> findList(Specification<Customer> spec, Sort sort, int limit, Class<T> type);
+
+    /**
+     * findById leyendo siempre de la BBDD, sin pasar por la caché de segundo
+     * nivel (que sólo se entera de las escrituras de esta instancia); lo leído
+     * reemplaza lo que hubiera en ella.
+     */
+    Optional<Customer> findFreshById(Integer id);
+
+    /**
+     * Recorre todos los Customer que cumplen spec, ordenados por id, con un
+     * cursor de sólo avance: las filas se leen de fetchSize en fetchSize y
+     * cada entidad se desvincula del contexto de persistencia al consumirla.
+     * Debe consumirse (y cerrarse) dentro de una transacción.
+     */
+    Stream<Customer> streamAll(Specification<Customer> spec, int fetchSize);
+}
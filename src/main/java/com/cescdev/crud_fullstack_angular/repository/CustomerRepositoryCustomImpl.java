@@ -0,0 +1,173 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+/**
+ * Implementación de {@link CustomerRepositoryCustom} con Criteria API.
+ * El sufijo "Impl" es el que Spring Data busca para enlazar el fragmento.
+ * Las SELECT de páginas, slices y listas (y su count) usan la caché de consultas;
+ * streamAll no usa ninguna caché, porque recorre la tabla entera.
+ */
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final HibernateCacheConfig hibernateCache;
+
+    public CustomerRepositoryCustomImpl(EntityManager entityManager, HibernateCacheConfig hibernateCache) {
+        this.entityManager = entityManager;
+        this.hibernateCache = hibernateCache;
+    }
+
+    @Override
+    public <T> Slice<T> findSlice(Specification<Customer> spec, Pageable pageable, Class<T> type) {
+        TypedQuery<T> typedQuery = selectQuery(spec, pageable.getSort(), type);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+
+        // OFFSET/LIMIT con una fila extra que sólo sirve para calcular hasNext
+        int size = pageable.getPageSize();
+        typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        typedQuery.setMaxResults(size + 1);
+        List<T> rows = typedQuery.getResultList();
+
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public <T> Page<T> findPage(Specification<Customer> spec, Pageable pageable, Class<T> type) {
+        TypedQuery<T> typedQuery = selectQuery(spec, pageable.getSort(), type);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        // Igual que SimpleJpaRepository: sin count(*) si la página no está llena
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public <T> List<T> findList(Specification<Customer> spec, Sort sort, int limit, Class<T> type) {
+        TypedQuery<T> typedQuery = selectQuery(spec, sort, type);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public Optional<Customer> findFreshById(Integer id) {
+        return Optional.ofNullable(entityManager.find(Customer.class, id, Map.of(
+                "jakarta.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS,
+                "jakarta.persistence.cache.storeMode", CacheStoreMode.REFRESH)));
+    }
+
+    @Override
+    public Stream<Customer> streamAll(Specification<Customer> spec, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        // Ni lee de la caché de segundo nivel ni la llena: la exportación no debe vaciarla.
+        // Va en la sesión y no como hint: las filas se cargan al consumir el stream,
+        // cuando Hibernate ya ha restaurado el modo de caché de la consulta
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        return entityManager.createQuery(query)
+                // Filas que el driver trae por viaje (MySQL: requiere useCursorFetch=true)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                // Sólo lectura: sin snapshot para dirty checking
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                // Desvinculamos cada entidad para que el contexto no crezca con la exportación
+                .peek(entityManager::detach)
+                .onClose(() -> session.setCacheMode(previous));
+    }
+
+    /**
+     * SELECT con el WHERE de spec y el ORDER BY de sort (el mismo que generaría
+     * SimpleJpaRepository). Si type no es la entidad, la SELECT es un constructor
+     * de type con (id, firstName, lastName, email).
+     */
+    private <T> TypedQuery<T> selectQuery(Specification<Customer> spec, Sort sort, Class<T> type) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Customer> root = query.from(Customer.class);
+
+        if (type == Customer.class) {
+            @SuppressWarnings("unchecked")
+            Selection<T> entity = (Selection<T>) (Selection<?>) root;
+            query.select(entity);
+        } else {
+            query.select(cb.construct(type,
+                    root.get("id"), root.get("firstName"), root.get("lastName"), root.get("email")));
+        }
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(toOrders(sort, root, cb));
+        }
+        return cacheable(entityManager.createQuery(query));
+    }
+
+    private long count(Specification<Customer> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Customer> root = query.from(Customer.class);
+        query.select(cb.count(root));
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return cacheable(entityManager.createQuery(query)).getSingleResult();
+    }
+
+    /**
+     * Marca la consulta para la caché de resultados de Hibernate: la misma
+     * consulta con los mismos parámetros no vuelve a la BBDD mientras nadie
+     * escriba en customers (ver HibernateCacheConfig).
+     */
+    private <T> TypedQuery<T> cacheable(TypedQuery<T> query) {
+        hibernateCache.evictStaleQueries();
+        return query.setHint(HibernateHints.HINT_CACHEABLE, true);
+    }
+}
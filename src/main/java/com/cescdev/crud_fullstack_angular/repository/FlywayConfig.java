@@ -0,0 +1,27 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Migraciones de db/migration al arrancar, salvo con spring.flyway.enabled=false.
+ *
+ * Sin AOT esa propiedad ya desactiva toda la configuración de Flyway. Con AOT
+ * (perfil aot) los beans condicionales se deciden al compilar y flywayInitializer
+ * existe siempre: esta estrategia vuelve a mirar la propiedad al arrancar, para
+ * que el arranque de entrenamiento de CDS no necesite base de datos.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        return flyway -> {
+            if (environment.getProperty("spring.flyway.enabled", Boolean.class, true)) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.service.CustomerChangedEvent;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache (Caffeine) para Customer
+ * y caché de resultados de consultas para los listados y búsquedas.
+ *
+ *   - Región "customers": entidades por ID (findById, PATCH...), acotada por
+ *     customers.l2cache.entity.max-size y customers.l2cache.entity.ttl.
+ *   - Región de consultas: las páginas de CustomerRepositoryCustomImpl (y su
+ *     count), acotada por customers.l2cache.query.max-size y .ttl.
+ *   - Región de timestamps: la usa Hibernate para saber si una consulta cacheada
+ *     es anterior a la última escritura en la tabla; no debe caducar.
+ *
+ * Invalidación: las escrituras que pasan por Hibernate (save, PATCH y los
+ * UPDATE/DELETE JPQL de PUT y DELETE) invalidan solas las consultas sobre
+ * customers. Las de CustomerBatchRepository van por JDBC y Hibernate no las ve:
+ * por eso, con cada {@link CustomerChangedEvent}, se expulsa la entidad y se
+ * marcan las consultas cacheadas como viejas. La región de consultas se vacía
+ * una sola vez, justo antes de la siguiente consulta cacheable
+ * ({@link #evictStaleQueries()}): un lote o una importación de N filas publica
+ * N eventos pero no la vacía N veces.
+ *
+ * Con la caché activada también se activan las estadísticas de Hibernate, y
+ * Spring Boot las publica en Micrometer (hibernate.second.level.cache.requests,
+ * hibernate.cache.query.requests...). El resumen "Session Metrics" que Hibernate
+ * escribiría entonces en cada sesión se silencia en application.properties.
+ * Con customers.l2cache.enabled=false todo queda como antes, sin estadísticas.
+ */
+@Configuration
+@Profile("!reactive")
+public class HibernateCacheConfig {
+
+    private static final String ENTITY_REGION = "customers";
+
+    private final boolean enabled;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AtomicBoolean queriesStale = new AtomicBoolean();
+
+    public HibernateCacheConfig(
+            @Value("${customers.l2cache.enabled:true}") boolean enabled,
+            @Lazy EntityManagerFactory entityManagerFactory
+    ) {
+        this.enabled = enabled;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * CacheManager propio (URI única) para que cada contexto de Spring, p. ej.
+     * en los tests, tenga sus cachés y las cierre al pararse.
+     */
+    @Bean(destroyMethod = "close")
+    CacheManager hibernateCacheManager(
+            @Value("${customers.l2cache.entity.max-size:10000}") long entityMaxSize,
+            @Value("${customers.l2cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${customers.l2cache.query.max-size:1000}") long queryMaxSize,
+            @Value("${customers.l2cache.query.ttl:1m}") Duration queryTtl
+    ) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("customers-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(ENTITY_REGION, region(entityMaxSize, entityTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryMaxSize, queryTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(0, null));
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, enabled);
+            if (enabled) {
+                properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                // Todas las regiones se crean arriba con sus límites: ninguna sin configurar
+                properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            }
+        };
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        evict(event.id());
+    }
+
+    /**
+     * Las lecturas de réplicas durante la ventana tras una escritura pueden
+     * haber cacheado la fila vieja (ver ReplicaPool).
+     */
+    @EventListener
+    public void onReplicaCaughtUp(ReplicaCaughtUpEvent event) {
+        evict(event.id());
+    }
+
+    /**
+     * Vacía la región de consultas si ha habido escrituras desde la última vez.
+     * La llama CustomerRepositoryCustomImpl antes de cada consulta cacheable.
+     */
+    public void evictStaleQueries() {
+        if (queriesStale.getAndSet(false)) {
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+        }
+    }
+
+    private void evict(Integer id) {
+        if (!enabled) {
+            return;
+        }
+        entityManagerFactory.getCache().evict(Customer.class, id);
+        queriesStale.set(true);
+    }
+
+    /**
+     * Región con como mucho maxSize entradas (0 = sin límite) que caducan
+     * ttl después de escribirse (null = nunca).
+     */
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
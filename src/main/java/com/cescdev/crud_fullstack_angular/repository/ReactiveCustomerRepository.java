@@ -0,0 +1,241 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.cescdev.crud_fullstack_angular.service.CustomerCursor;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Acceso no bloqueante a la tabla customers con R2DBC (perfil "reactive").
+ *
+ * Mismo esquema y mismas consultas que la variante JPA: columnas en
+ * snake_case, version mantenida a mano (0 al insertar, +1 al actualizar),
+ * LIKE en minúsculas sobre firstName/lastName/email y keyset por
+ * (id) o (lastName, id). Las filas de listado se leen directamente como
+ * CustomerOutputDto y los Flux respetan la demanda del suscriptor: el driver
+ * sólo trae filas a medida que se consumen.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveCustomerRepository {
+
+    private static final String SELECT_DTO = "SELECT id, first_name, last_name, email FROM customers";
+    private static final String SELECT_ENTITY = "SELECT id, first_name, last_name, email, version FROM customers";
+
+    // Propiedades por las que se puede ordenar y su columna (el SQL se construye a mano)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "email", "email"
+    );
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveCustomerRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Customer> findById(Integer id) {
+        return databaseClient.sql(SELECT_ENTITY + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCustomerRepository::toEntity)
+                .one();
+    }
+
+    /**
+     * Versión actual de un Customer (vacío si no existe).
+     */
+    public Mono<Long> findVersionById(Integer id) {
+        return databaseClient.sql("SELECT version FROM customers WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Integer id) {
+        return databaseClient.sql("SELECT 1 FROM customers WHERE id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    /**
+     * Página de DTOs: WHERE keyword [AND tras el cursor] ORDER BY sort LIMIT/OFFSET.
+     */
+    public Flux<CustomerOutputDto> find(String keyword, CustomerCursor after, Sort sort, long offset, int limit) {
+        Query where = where(keyword, after);
+        StringBuilder sql = new StringBuilder(SELECT_DTO).append(where.sql).append(orderBy(sort));
+        sql.append(" LIMIT ").append(limit);
+        if (offset > 0) {
+            sql.append(" OFFSET ").append(offset);
+        }
+        return where.bindTo(databaseClient.sql(sql.toString()))
+                .map(ReactiveCustomerRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> count(String keyword) {
+        Query where = where(keyword, null);
+        return where.bindTo(databaseClient.sql("SELECT COUNT(*) FROM customers" + where.sql))
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Todos los DTOs que cumplen keyword en orden de id, pidiendo al driver
+     * fetchSize filas por viaje según las va solicitando el suscriptor.
+     */
+    public Flux<CustomerOutputDto> streamAll(String keyword, int fetchSize) {
+        Query where = where(keyword, null);
+        return where.bindTo(databaseClient.sql(SELECT_DTO + where.sql + " ORDER BY id"))
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveCustomerRepository::toDto)
+                .all();
+    }
+
+    /**
+     * INSERT con versión 0. Rellena id y version del Customer recibido.
+     */
+    public Mono<Customer> insert(Customer customer) {
+        return databaseClient.sql("INSERT INTO customers (first_name, last_name, email, version) "
+                        + "VALUES (:firstName, :lastName, :email, 0)")
+                .bind("firstName", customer.getFirstName())
+                .bind("lastName", customer.getLastName())
+                .bind("email", customer.getEmail())
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .map(id -> {
+                    customer.setId(id);
+                    customer.setVersion(0L);
+                    return customer;
+                });
+    }
+
+    /**
+     * UPDATE de todos los datos en un único viaje; si expectedVersion no es null,
+     * sólo sobre esa versión. Devuelve las filas afectadas.
+     */
+    public Mono<Long> update(Integer id, Customer data, Long expectedVersion) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "UPDATE customers SET first_name = :firstName, last_name = :lastName, email = :email, "
+                                + "version = version + 1 WHERE id = :id"
+                                + (expectedVersion != null ? " AND version = :version" : ""))
+                .bind("firstName", data.getFirstName())
+                .bind("lastName", data.getLastName())
+                .bind("email", data.getEmail())
+                .bind("id", id);
+        if (expectedVersion != null) {
+            spec = spec.bind("version", expectedVersion);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * UPDATE sólo de las columnas indicadas (equivalente a @DynamicUpdate),
+     * condicionado a la versión leída. Devuelve las filas afectadas.
+     */
+    public Mono<Long> updateColumns(Integer id, long version, Map<String, Object> columns) {
+        StringJoiner set = new StringJoiner(", ");
+        columns.keySet().forEach(column -> set.add(column + " = :" + column));
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "UPDATE customers SET " + set + ", version = version + 1 WHERE id = :id AND version = :version")
+                .bind("id", id)
+                .bind("version", version);
+        for (Map.Entry<String, Object> column : columns.entrySet()) {
+            spec = spec.bind(column.getKey(), column.getValue());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Integer id) {
+        return databaseClient.sql("DELETE FROM customers WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // ----------- CONSTRUCCIÓN DEL SQL -----------
+
+    /**
+     * Cláusula WHERE (con sus parámetros) equivalente a
+     * containsKeywordInFields(keyword).and(afterCursor(after)).
+     */
+    private static Query where(String keyword, CustomerCursor after) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (keyword != null && !keyword.isBlank()) {
+            conditions.add("(LOWER(first_name) LIKE :pattern OR LOWER(last_name) LIKE :pattern "
+                    + "OR LOWER(email) LIKE :pattern)");
+            params.put("pattern", "%" + keyword.toLowerCase() + "%");
+        }
+        if (after != null) {
+            conditions.add(after.getOrder() == CustomerCursor.Order.ID
+                    ? "id > :afterId"
+                    : "(last_name > :afterLastName OR (last_name = :afterLastName AND id > :afterId))");
+            params.put("afterId", after.getId());
+            if (after.getOrder() == CustomerCursor.Order.LAST_NAME) {
+                params.put("afterLastName", after.getLastName());
+            }
+        }
+        String sql = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        return new Query(sql, params);
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orders = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new BadRequestException("No se puede ordenar por: " + order.getProperty());
+            }
+            orders.add(column + (order.isDescending() ? " DESC" : " ASC"));
+        }
+        return orders.toString();
+    }
+
+    private static CustomerOutputDto toDto(Readable row) {
+        return new CustomerOutputDto(
+                row.get("id", Integer.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class));
+    }
+
+    private static Customer toEntity(Readable row) {
+        Customer customer = new Customer(
+                row.get("id", Integer.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("email", String.class));
+        customer.setVersion(row.get("version", Long.class));
+        return customer;
+    }
+
+    private record Query(String sql, Map<String, Object> params) {
+        DatabaseClient.GenericExecuteSpec bindTo(DatabaseClient.GenericExecuteSpec spec) {
+            for (Map.Entry<String, Object> param : params.entrySet()) {
+                spec = spec.bind(param.getKey(), param.getValue());
+            }
+            return spec;
+        }
+    }
+}
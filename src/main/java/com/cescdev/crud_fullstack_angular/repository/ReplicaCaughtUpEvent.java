@@ -0,0 +1,14 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+/**
+ * Evento que {@link ReplicaPool} publica customers.replicas.sticky-window después
+ * de cada escritura, cuando las réplicas ya deberían tenerla.
+ *
+ * Durante la ventana, las lecturas de otros clientes siguen yendo a las réplicas
+ * y pueden haber dejado en CustomerCache o en la caché de segundo nivel la fila
+ * anterior a la escritura: los que las mantienen expulsan la fila al recibirlo.
+ *
+ * @param id ID del Customer escrito.
+ */
+public record ReplicaCaughtUpEvent(Integer id) {
+}
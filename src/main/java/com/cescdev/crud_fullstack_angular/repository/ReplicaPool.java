@@ -0,0 +1,298 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.service.CustomerChangedEvent;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Réplicas de lectura de MySQL para las transacciones de sólo lectura
+ * (ver ReplicaRoutingConfig, que decide qué conexiones vienen aquí).
+ *
+ *   - Una pool de Hikari por URL de customers.replicas.urls (con
+ *     customers.replicas.pool-size conexiones), con sus métricas hikaricp.*.
+ *   - Reparto: round-robin (por defecto) o least-loaded, la réplica con menos
+ *     conexiones prestadas en ese momento (customers.replicas.balancing).
+ *   - Leer lo propio escrito, por cliente: durante customers.replicas.sticky-window
+ *     tras escribir, las lecturas de ese cliente van al primario. El cliente lo
+ *     marca {@link ReplicaStickinessFilter} con una cookie; el hilo que publica
+ *     el {@link CustomerChangedEvent} (el de la petición, el de write-behind...)
+ *     también queda pegado al primario. La ventana debe cubrir el retraso de
+ *     replicación habitual.
+ *   - Los demás clientes siguen leyendo de las réplicas durante la ventana y
+ *     pueden dejar en CustomerCache o en la caché de segundo nivel la fila
+ *     anterior a la escritura: al cerrarse la ventana se publica un
+ *     {@link ReplicaCaughtUpEvent} para expulsarla.
+ *   - Salud: una réplica que no da conexión se marca caída y se salta; se
+ *     prueba de nuevo cada customers.replicas.health-check-interval. Sin
+ *     réplicas sanas se lee del primario.
+ *
+ * Publica en Micrometer customers.replicas.connections (target=nombre de la
+ * pool o primary, reason=balanced|sticky|failover) y customers.replicas.healthy.
+ * Sólo existe con customers.replicas.enabled=true.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.replicas.enabled", havingValue = "true")
+public class ReplicaPool implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    public enum Balancing { ROUND_ROBIN, LEAST_LOADED }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Balancing balancing;
+    private final long stickyWindowMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck;
+
+    private final Counter stickyReads;
+    private final Counter failoverReads;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Hasta cuándo (epoch en ms) lee del primario el cliente atendido por este hilo
+    private final ThreadLocal<Long> stickyUntil = new ThreadLocal<>();
+
+    public ReplicaPool(
+            @Value("${customers.replicas.urls:}") List<String> urls,
+            @Value("${customers.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${customers.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${customers.replicas.pool-size:20}") int poolSize,
+            @Value("${customers.replicas.connection-timeout:1s}") Duration connectionTimeout,
+            @Value("${customers.replicas.balancing:round-robin}") String balancing,
+            @Value("${customers.replicas.sticky-window:1s}") Duration stickyWindow,
+            @Value("${customers.replicas.health-check-interval:5s}") Duration healthCheckInterval,
+            MeterRegistry meterRegistry,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.eventPublisher = eventPublisher;
+        this.balancing = Balancing.valueOf(balancing.toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.stickyWindowMillis = stickyWindow.toMillis();
+
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            // Arranca aunque alguna réplica esté caída: la comprobación de salud la recupera
+            config.setInitializationFailTimeout(-1);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(config.getPoolName(), new HikariDataSource(config), meterRegistry));
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("customers.replicas.enabled=true sin ninguna URL en customers.replicas.urls");
+        }
+
+        this.stickyReads = connections(meterRegistry, "primary", "sticky");
+        this.failoverReads = connections(meterRegistry, "primary", "failover");
+        Gauge.builder("customers.replicas.healthy", replicas,
+                        rs -> rs.stream().filter(r -> r.healthy).count())
+                .register(meterRegistry);
+
+        // También programa los ReplicaCaughtUpEvent al cerrarse cada ventana
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("customer-replica-health").daemon().factory());
+        healthCheck.scheduleWithFixedDelay(this::checkHealth, 0,
+                healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * DataSource de sólo lectura: réplica sana según el reparto, o primary si
+     * el cliente está en la ventana tras escribir o no queda ninguna réplica sana.
+     */
+    public DataSource readOnly(DataSource primary) {
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return connection(primary);
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                // Las credenciales de las réplicas son las de customers.replicas.*
+                return connection(primary);
+            }
+        };
+    }
+
+    /**
+     * Las lecturas de este hilo van al primario hasta until (epoch en ms), como
+     * mucho sticky-window desde ahora: until viene de una cookie del cliente.
+     */
+    public void stickToPrimaryUntil(long until) {
+        stickyUntil.set(Math.min(until, System.currentTimeMillis() + stickyWindowMillis));
+    }
+
+    public void releaseSticky() {
+        stickyUntil.remove();
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        stickyUntil.set(System.currentTimeMillis() + stickyWindowMillis);
+        try {
+            healthCheck.schedule(() -> eventPublisher.publishEvent(new ReplicaCaughtUpEvent(event.id())),
+                    stickyWindowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Cerrando: las cachés desaparecen con el contexto
+        }
+    }
+
+    public List<String> healthyReplicas() {
+        return replicas.stream().filter(r -> r.healthy).map(r -> r.name).toList();
+    }
+
+    private Connection connection(DataSource primary) throws SQLException {
+        Long until = stickyUntil.get();
+        if (until != null && System.currentTimeMillis() < until) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        for (Replica replica : candidates()) {
+            try {
+                return replica.borrow();
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        failoverReads.increment();
+        return primary.getConnection();
+    }
+
+    /**
+     * Réplicas sanas en el orden en que hay que intentarlas.
+     */
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        if (balancing == Balancing.ROUND_ROBIN) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int k = 0; k < replicas.size(); k++) {
+                Replica replica = replicas.get((start + k) % replicas.size());
+                if (replica.healthy) {
+                    healthy.add(replica);
+                }
+            }
+        } else {
+            for (Replica replica : replicas) {
+                if (replica.healthy) {
+                    healthy.add(replica);
+                }
+            }
+            healthy.sort(Comparator.comparingInt(r -> r.inUse.get()));
+        }
+        return healthy;
+    }
+
+    private void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(1)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(new SQLException("La conexión no es válida"));
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            } catch (RuntimeException e) {
+                log.error("Fallo comprobando la réplica {}", replica.name, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        healthCheck.shutdownNow();
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    private static Counter connections(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("customers.replicas.connections")
+                .tag("target", target).tag("reason", reason).register(meterRegistry);
+    }
+
+    private static final class Replica {
+        final String name;
+        final HikariDataSource dataSource;
+        // Conexiones prestadas y aún sin cerrar (para least-loaded)
+        final AtomicInteger inUse = new AtomicInteger();
+        final Counter reads;
+        volatile boolean healthy = true;
+
+        Replica(String name, HikariDataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.reads = connections(meterRegistry, name, "balanced");
+        }
+
+        Connection borrow() throws SQLException {
+            Connection target = dataSource.getConnection();
+            inUse.incrementAndGet();
+            reads.increment();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                            inUse.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+
+        void markDown(SQLException cause) {
+            if (healthy) {
+                healthy = false;
+                log.warn("Réplica {} caída, se deja de leer de ella: {}", name, cause.getMessage());
+            }
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Réplica {} recuperada", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Lecturas a réplicas: las transacciones de sólo lectura (@Transactional(readOnly = true),
+ * los métodos de lectura de los repositorios de Spring Data y la readOnlyTransaction
+ * de CustomerServiceImpl) toman la conexión de {@link ReplicaPool}; el resto, del
+ * DataSource de spring.datasource.* (el primario).
+ *
+ * El DataSource primario se envuelve en un LazyConnectionDataSourceProxy con
+ * ReplicaPool como readOnlyDataSource: la conexión real no se pide al empezar
+ * la transacción sino en la primera sentencia, cuando ya se sabe si es de sólo
+ * lectura. Las sentencias siguen midiéndose en customers.sql.* (MetricsConfig
+ * envuelve este proxy, por eso va antes).
+ *
+ * {@link ReplicaStickinessFilter} marca, con una cookie, a los clientes que
+ * acaban de escribir para que lean del primario durante la ventana.
+ *
+ * Se activa con customers.replicas.enabled=true y customers.replicas.urls.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    static BeanPostProcessor replicaRoutingDataSourcePostProcessor(ObjectProvider<ReplicaPool> replicaPool) {
+        return new RoutingPostProcessor(replicaPool);
+    }
+
+    @Bean
+    FilterRegistrationBean<ReplicaStickinessFilter> replicaStickinessFilter(
+            ReplicaPool replicaPool,
+            @Value("${customers.replicas.sticky-window:1s}") Duration stickyWindow
+    ) {
+        FilterRegistrationBean<ReplicaStickinessFilter> registration =
+                new FilterRegistrationBean<>(new ReplicaStickinessFilter(replicaPool, stickyWindow));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<ReplicaPool> replicaPool;
+
+        RoutingPostProcessor(ObjectProvider<ReplicaPool> replicaPool) {
+            this.replicaPool = replicaPool;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary)) {
+                return bean;
+            }
+            LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+            routing.setReadOnlyDataSource(replicaPool.getObject().readOnly(primary));
+            return routing;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Leer lo propio escrito, por cliente: cada petición que puede escribir
+ * (todo lo que no es GET, HEAD u OPTIONS) deja una cookie con el instante
+ * (epoch en ms) hasta el que ese cliente debe leer del primario, y las
+ * peticiones que la traen leen del primario hasta entonces (ver
+ * {@link ReplicaPool#stickToPrimaryUntil(long)}). El resto de clientes
+ * sigue leyendo de las réplicas.
+ *
+ * La ventana cuenta desde el inicio de la petición que escribe: la cookie
+ * tiene que salir antes de que se confirme la respuesta. Con varias
+ * instancias, sus relojes deben estar sincronizados (el Max-Age de la
+ * cookie acota el error en cualquier caso).
+ */
+class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "customers-primary-until";
+
+    private final ReplicaPool replicaPool;
+    private final long stickyWindowMillis;
+
+    ReplicaStickinessFilter(ReplicaPool replicaPool, Duration stickyWindow) {
+        this.replicaPool = replicaPool;
+        this.stickyWindowMillis = stickyWindow.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long until = writes(request) ? stick(response) : cookieValue(request);
+        try {
+            if (until > 0) {
+                replicaPool.stickToPrimaryUntil(until);
+            }
+            chain.doFilter(request, response);
+        } finally {
+            replicaPool.releaseSticky();
+        }
+    }
+
+    private long stick(HttpServletResponse response) {
+        long until = System.currentTimeMillis() + stickyWindowMillis;
+        Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+        cookie.setPath("/api");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (stickyWindowMillis + 999) / 1000));
+        response.addCookie(cookie);
+        return until;
+    }
+
+    private static boolean writes(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !method.equals("GET") && !method.equals("HEAD") && !method.equals("OPTIONS");
+    }
+
+    private static long cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+/**
+ * Cómo se calcula el total de elementos en los listados paginados.
+ *   - EXACT:       Page con SELECT count(*) en cada petición (comportamiento clásico).
+ *   - NONE:        Slice sin total; sólo se sabe si hay página siguiente.
+ *   - APPROXIMATE: Page cuyo total sale de un conteo cacheado y refrescado
+ *                  periódicamente (ver {@link CustomerCountCache}).
+ */
+public enum CountMode {
+    EXACT,
+    NONE,
+    APPROXIMATE
+}
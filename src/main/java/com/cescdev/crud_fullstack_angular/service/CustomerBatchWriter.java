@@ -0,0 +1,323 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.BatchItemResult;
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.cescdev.crud_fullstack_angular.repository.CustomerBatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lógica de las operaciones por lotes de CustomerService.
+ *
+ * Para cada lote:
+ *   1. Valida cada elemento con las restricciones de Customer (los inválidos
+ *      se reportan y se excluyen; no abortan el lote).
+ *   2. Detecta emails duplicados, dentro del propio lote y contra la tabla.
+ *   3. Escribe el resto en bloques de customers.batch.chunk-size filas, cada
+ *      bloque en su transacción y con un único executeBatch().
+ *   4. Si un bloque falla por integridad (p. ej. un email insertado por otra
+ *      petición entre medias), se repite fila a fila para aislar al culpable.
+ */
+@Component
+@Profile("!reactive")
+public class CustomerBatchWriter {
+
+    private final CustomerBatchRepository batchRepository;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public CustomerBatchWriter(
+            CustomerBatchRepository batchRepository,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${customers.batch.chunk-size:500}") int chunkSize,
+            @Value("${customers.batch.max-items:10000}") int maxItems
+    ) {
+        this.batchRepository = batchRepository;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public BatchResult insertAll(List<Customer> customers) {
+        return insertAll(customers, DuplicatePolicy.SKIP);
+    }
+
+    /**
+     * Alta por lotes con una política para los emails que ya existen:
+     *   - SKIP / FAIL: el elemento se reporta como DUPLICATE (qué hacer después
+     *     con un FAIL lo decide el llamador).
+     *   - UPSERT: se actualiza el Customer que ya tiene ese email. Si el email
+     *     se repite dentro del mismo bloque, gana la última aparición.
+     */
+    public BatchResult insertAll(List<Customer> customers, DuplicatePolicy policy) {
+        checkSize(customers.size());
+        BatchItemResult[] results = new BatchItemResult[customers.size()];
+        boolean upsert = policy == DuplicatePolicy.UPSERT;
+
+        for (int from = 0; from < customers.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, customers.size());
+            List<Integer> pending = validate(customers, from, to, results);
+            Map<String, Integer> existing = batchRepository.findIdsByEmail(emailsOf(customers, pending));
+
+            // Los bloques anteriores ya están confirmados: basta con detectar repetidos dentro del bloque
+            Map<String, Integer> lastIndexByEmail = new HashMap<>();
+            pending.forEach(i -> lastIndexByEmail.put(normalizeEmail(customers.get(i)), i));
+            Set<String> seenEmails = new HashSet<>();
+
+            List<Integer> toInsert = new ArrayList<>();
+            List<Integer> toUpdate = new ArrayList<>();
+            for (int i : pending) {
+                Customer c = customers.get(i);
+                String email = normalizeEmail(c);
+                boolean repeatedInChunk = upsert
+                        ? lastIndexByEmail.get(email) != i
+                        : !seenEmails.add(email);
+                if (repeatedInChunk) {
+                    results[i] = duplicate(i, null);
+                } else if (existing.containsKey(email) && upsert) {
+                    c.setId(existing.get(email));
+                    toUpdate.add(i);
+                } else if (existing.containsKey(email)) {
+                    results[i] = duplicate(i, existing.get(email));
+                } else {
+                    toInsert.add(i);
+                }
+            }
+
+            int[] inserted = write(toInsert,
+                    idx -> {
+                        batchRepository.insertAll(pick(customers, idx));
+                        return ones(idx.size());
+                    },
+                    i -> {
+                        batchRepository.insertAll(List.of(customers.get(i)));
+                        return 1;
+                    });
+            collect(customers, toInsert, inserted, results, BatchItemResult.Status.CREATED);
+
+            int[] updated = write(toUpdate,
+                    idx -> batchRepository.updateAll(pick(customers, idx)),
+                    i -> batchRepository.updateAll(List.of(customers.get(i)))[0]);
+            collect(customers, toUpdate, updated, results, BatchItemResult.Status.UPDATED);
+        }
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    public BatchResult updateAll(List<Customer> customers) {
+        checkSize(customers.size());
+        BatchItemResult[] results = new BatchItemResult[customers.size()];
+
+        for (int from = 0; from < customers.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, customers.size());
+            List<Integer> pending = validate(customers, from, to, results);
+            Map<String, Integer> existing = batchRepository.findIdsByEmail(emailsOf(customers, pending));
+            Set<String> seenEmails = new HashSet<>();
+
+            List<Integer> toUpdate = new ArrayList<>();
+            for (int i : pending) {
+                Customer c = customers.get(i);
+                String email = normalizeEmail(c);
+                Integer owner = existing.get(email);
+                if (c.getId() == null) {
+                    results[i] = BatchItemResult.failed(i, null, BatchItemResult.Status.INVALID,
+                            "id: El id no puede estar vacío");
+                } else if ((owner != null && !owner.equals(c.getId())) || !seenEmails.add(email)) {
+                    results[i] = duplicate(i, c.getId());
+                } else {
+                    toUpdate.add(i);
+                }
+            }
+
+            int[] counts = write(toUpdate,
+                    idx -> batchRepository.updateAll(pick(customers, idx)),
+                    i -> batchRepository.updateAll(List.of(customers.get(i)))[0]);
+            collect(customers, toUpdate, counts, results, BatchItemResult.Status.UPDATED);
+        }
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    public BatchResult deleteAllById(List<Integer> ids) {
+        checkSize(ids.size());
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, ids.size());
+            // Los ids vacíos se reportan aquí: no pueden ir al lote JDBC
+            List<Integer> toDelete = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                if (ids.get(i) == null) {
+                    results[i] = BatchItemResult.failed(i, null, BatchItemResult.Status.INVALID,
+                            "id: El id no puede estar vacío");
+                } else {
+                    toDelete.add(i);
+                }
+            }
+            if (toDelete.isEmpty()) {
+                continue;
+            }
+
+            List<Integer> chunk = toDelete.stream().map(ids::get).toList();
+            int[] counts = transactionTemplate.execute(status -> batchRepository.deleteAllById(chunk));
+            for (int k = 0; k < chunk.size(); k++) {
+                int i = toDelete.get(k);
+                Integer id = chunk.get(k);
+                if (counts[k] > 0) {
+                    eventPublisher.publishEvent(CustomerChangedEvent.deleted(id));
+                    results[i] = BatchItemResult.ok(i, id, BatchItemResult.Status.DELETED);
+                } else {
+                    results[i] = notFound(i, id);
+                }
+            }
+        }
+        return new BatchResult(Arrays.asList(results));
+    }
+
+    // ----------- AUXILIARES -----------
+
+    private void checkSize(int size) {
+        if (size > maxItems) {
+            throw new BadRequestException("Un lote no puede tener más de " + maxItems + " elementos");
+        }
+    }
+
+    /**
+     * Valida customers[from, to) y devuelve los índices válidos; los inválidos quedan en results.
+     */
+    private List<Integer> validate(List<Customer> customers, int from, int to, BatchItemResult[] results) {
+        List<Integer> valid = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            Customer c = customers.get(i);
+            Set<ConstraintViolation<Customer>> violations = c == null ? Set.of() : validator.validate(c);
+            if (c == null) {
+                results[i] = BatchItemResult.failed(i, null, BatchItemResult.Status.INVALID, "Elemento vacío");
+            } else if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results[i] = BatchItemResult.failed(i, c.getId(), BatchItemResult.Status.INVALID, message);
+            } else {
+                valid.add(i);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Escribe los índices indicados en una sola transacción y un solo lote JDBC.
+     * Si el lote choca con una restricción de integridad (se revierte entero),
+     * se reintenta fila a fila, cada una en su transacción.
+     *
+     * @return filas afectadas por cada índice; -1 si esa fila violó una restricción.
+     */
+    private int[] write(List<Integer> indexes, ChunkWriter chunkWriter, RowWriter rowWriter) {
+        if (indexes.isEmpty()) {
+            return new int[0];
+        }
+        try {
+            return transactionTemplate.execute(status -> chunkWriter.write(indexes));
+        } catch (DataIntegrityViolationException ex) {
+            int[] counts = new int[indexes.size()];
+            for (int k = 0; k < indexes.size(); k++) {
+                int i = indexes.get(k);
+                try {
+                    counts[k] = transactionTemplate.execute(status -> rowWriter.write(i));
+                } catch (DataIntegrityViolationException rowEx) {
+                    counts[k] = -1;
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Traduce las filas afectadas de cada índice a su resultado y publica el evento:
+     *   -1 => DUPLICATE, 0 => NOT_FOUND, >0 => success.
+     * Los Customer escritos ya llevan el id y la version de la BBDD (ver CustomerBatchRepository).
+     */
+    private void collect(List<Customer> customers, List<Integer> indexes, int[] counts,
+                         BatchItemResult[] results, BatchItemResult.Status success) {
+        for (int k = 0; k < indexes.size(); k++) {
+            int i = indexes.get(k);
+            Customer c = customers.get(i);
+            if (counts[k] < 0) {
+                results[i] = duplicate(i, c.getId());
+            } else if (counts[k] == 0) {
+                results[i] = notFound(i, c.getId());
+            } else {
+                eventPublisher.publishEvent(success == BatchItemResult.Status.CREATED
+                        ? CustomerChangedEvent.created(c)
+                        : CustomerChangedEvent.updated(c));
+                results[i] = BatchItemResult.ok(i, c.getId(), success);
+            }
+        }
+    }
+
+    private static List<Customer> pick(List<Customer> customers, List<Integer> indexes) {
+        return indexes.stream().map(customers::get).toList();
+    }
+
+    private static List<String> emailsOf(List<Customer> customers, List<Integer> indexes) {
+        return indexes.stream().map(i -> customers.get(i).getEmail()).distinct().toList();
+    }
+
+    private static String normalizeEmail(Customer c) {
+        return c.getEmail().toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] ones(int n) {
+        int[] counts = new int[n];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+
+    private static BatchItemResult duplicate(int index, Integer id) {
+        return BatchItemResult.failed(index, id, BatchItemResult.Status.DUPLICATE,
+                "email: Ya existe un customer con ese email");
+    }
+
+    private static BatchItemResult notFound(int index, Integer id) {
+        return BatchItemResult.failed(index, id, BatchItemResult.Status.NOT_FOUND,
+                "Customer con id " + id + " no se encuentra");
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        int[] write(List<Integer> indexes);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        int write(int index);
+    }
+}
@@ -0,0 +1,199 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.repository.ReplicaCaughtUpEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Caché read-through de Customer por ID para CustomerService.findById.
+ *
+ *   - Acotada: como mucho customers.cache.max-size entradas (por defecto 10000),
+ *     expulsando la menos usada recientemente (LRU).
+ *   - Con caducidad: cada entrada vive customers.cache.ttl (por defecto 5m).
+ *   - Se invalida con cada {@link CustomerChangedEvent} y, con réplicas, otra vez
+ *     con el {@link ReplicaCaughtUpEvent} que llega al cerrarse la ventana.
+ *   - Se revalida: los eventos sólo llegan de las escrituras de esta instancia, así
+ *     que una entrada comprobada hace más de customers.cache.revalidate-after
+ *     (por defecto 5s) se contrasta con la versión de la BBDD (una consulta por
+ *     clave primaria) antes de servirla. Lo escrito en otra instancia, o
+ *     directamente en la BBDD, se ve como mucho revalidate-after tarde.
+ *   - Guarda y devuelve copias: con {@link CustomerReadCoalescer} la entidad
+ *     cargada es la misma instancia para el líder y todos sus seguidores, y
+ *     Customer es mutable. Cada llamador recibe su propia copia, así que nadie
+ *     puede cambiar lo que ven los demás ni lo cacheado.
+ *
+ * Publica en Micrometer cache.gets (result=hit|miss), cache.evictions y
+ * cache.size con la etiqueta cache=customers.
+ * Con customers.cache.max-size=0 la caché queda desactivada.
+ */
+@Component
+public class CustomerCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long revalidateNanos;
+    private final Map<Integer, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Se incrementa en cada invalidación; una carga que se solapa con una escritura no se cachea
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CustomerCache(
+            @Value("${customers.cache.max-size:10000}") int maxSize,
+            @Value("${customers.cache.ttl:5m}") Duration ttl,
+            @Value("${customers.cache.revalidate-after:5s}") Duration revalidateAfter,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.revalidateNanos = revalidateAfter.toNanos();
+        // LinkedHashMap en orden de acceso => el primero es el menos usado
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > CustomerCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", "customers").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", "customers").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", "customers").register(meterRegistry);
+        Gauge.builder("cache.size", this, CustomerCache::size)
+                .tag("cache", "customers").register(meterRegistry);
+    }
+
+    /**
+     * Devuelve una copia del Customer cacheado o, si no está (o ha caducado),
+     * lo carga con loader, lo cachea y devuelve una copia.
+     * Una entrada sin comprobar desde hace revalidate-after se sirve sólo si
+     * currentVersion (la versión en la BBDD, null si ya no existe) coincide;
+     * si no, se descarta y se vuelve a cargar.
+     * Las excepciones de loader (p. ej. ResourceNotFoundException) se propagan sin cachear.
+     */
+    public Customer get(Integer id, Function<Integer, Customer> loader, Function<Integer, Long> currentVersion) {
+        if (maxSize <= 0) {
+            // Copia también aquí: con CustomerReadCoalescer la entidad cargada puede ser compartida
+            return copy(loader.apply(id));
+        }
+
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry != null && now - entry.loadedAt >= ttlNanos) {
+                entries.remove(id); // caducada
+                evictions.incrementAndGet();
+                entry = null;
+            }
+            if (entry != null && now - entry.checkedAt < revalidateNanos) {
+                hits.incrementAndGet();
+                return copy(entry.customer);
+            }
+        }
+
+        if (entry != null) {
+            long epoch = invalidations.get();
+            if (Objects.equals(currentVersion.apply(id), entry.customer.getVersion())) {
+                synchronized (entries) {
+                    // Sigue vigente: no se vuelve a comprobar hasta dentro de revalidate-after
+                    if (invalidations.get() == epoch && entries.get(id) == entry) {
+                        entries.put(id, new Entry(entry.customer, entry.loadedAt, now));
+                    }
+                }
+                hits.incrementAndGet();
+                return copy(entry.customer);
+            }
+            // Cambiada o borrada fuera de esta instancia
+            invalidate(id);
+        }
+
+        misses.incrementAndGet();
+        long epoch = invalidations.get();
+        Customer loaded = loader.apply(id);
+        Customer snapshot = copy(loaded);
+
+        synchronized (entries) {
+            // Si hubo una escritura mientras cargábamos, lo leído puede ser ya viejo
+            if (invalidations.get() == epoch) {
+                entries.put(id, new Entry(snapshot, now, now));
+            }
+        }
+        return copy(snapshot);
+    }
+
+    /**
+     * Versión del Customer si está cacheado y se ha comprobado contra la BBDD
+     * hace menos de revalidate-after; null si no.
+     * No copia la entidad ni cuenta como acierto: sirve para resolver
+     * If-None-Match sin tocar la base de datos.
+     */
+    public Long cachedVersion(Integer id) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            return entry != null && now - entry.loadedAt < ttlNanos && now - entry.checkedAt < revalidateNanos
+                    ? entry.customer.getVersion() : null;
+        }
+    }
+
+    public void invalidate(Integer id) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        invalidate(event.id());
+    }
+
+    /**
+     * Con réplicas: lo cargado durante la ventana tras la escritura puede venir
+     * de una réplica que aún no la tenía.
+     */
+    @EventListener
+    public void onReplicaCaughtUp(ReplicaCaughtUpEvent event) {
+        invalidate(event.id());
+    }
+
+    private static Customer copy(Customer c) {
+        Customer copy = new Customer(c.getId(), c.getFirstName(), c.getLastName(), c.getEmail());
+        copy.setVersion(c.getVersion());
+        return copy;
+    }
+
+    private record Entry(Customer customer, long loadedAt, long checkedAt) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.ChangeFeed;
+import com.cescdev.crud_fullstack_angular.dto.CustomerChange;
+import com.cescdev.crud_fullstack_angular.exception.GoneException;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de cambios de customers para la sincronización incremental
+ * (GET /api/customers/changes): cada {@link CustomerChangedEvent} se guarda
+ * con un número de secuencia creciente en un buffer circular en memoria.
+ *
+ *   - Retención: los últimos customers.changes.capacity cambios (por defecto 10000).
+ *     Pedir desde una secuencia ya descartada da GoneException (410): el cliente
+ *     debe volver a leer el listado completo.
+ *   - La secuencia es de esta instancia y empieza en 0 al arrancar, así que va
+ *     acompañada de un epoch (el identificador de instancia de
+ *     {@link CustomerTableVersion}). Un epoch distinto del actual da 410: el cliente
+ *     venía de otra instancia o de antes de un reinicio, y su secuencia no dice
+ *     nada de este registro aunque sea un número válido aquí.
+ *   - Long-poll: await() espera hasta que haya cambios o venza el plazo.
+ *
+ * Requisito de despliegue con varias instancias: el registro sólo contiene las
+ * escrituras hechas a través de esta instancia. Por eso /changes necesita
+ * enrutado fijo (sticky) de cada cliente a una misma instancia, y además que
+ * las escrituras pasen por ella (una única instancia de escritura); si no, el
+ * cliente recibe 410 cada vez que cambia de instancia y no ve nunca lo escrito
+ * en las demás. Para repartir libremente habría que respaldar el registro con
+ * una tabla outbox en la BBDD, que esta clase no implementa.
+ *
+ * Flujo del cliente: GET /changes sin since => epoch y lastSeq actuales; después el
+ * listado completo; después /changes?epoch=epoch&since=lastSeq en bucle. Los cambios
+ * ocurridos durante la lectura inicial se reciben otra vez, y aplicarlos de nuevo
+ * no cambia nada.
+ */
+@Component
+public class CustomerChangeLog {
+
+    private final int capacity;
+    private final CustomerChange[] ring;
+    private final CustomerMapper customerMapper;
+    private final String epoch;
+    // Peticiones de long-poll esperando al próximo cambio
+    private final List<Waiter> waiters = new ArrayList<>();
+    private long lastSeq;
+
+    public CustomerChangeLog(
+            @Value("${customers.changes.capacity:10000}") int capacity,
+            CustomerMapper customerMapper,
+            CustomerTableVersion tableVersion
+    ) {
+        this.capacity = capacity;
+        this.ring = new CustomerChange[capacity];
+        this.customerMapper = customerMapper;
+        this.epoch = tableVersion.instanceId();
+    }
+
+    /**
+     * Posición actual del registro (epoch y lastSeq) sin ningún cambio.
+     */
+    public synchronized ChangeFeed current() {
+        return new ChangeFeed(List.of(), epoch, lastSeq, false);
+    }
+
+    /**
+     * Hasta limit cambios con secuencia mayor que since, del epoch indicado.
+     */
+    public synchronized ChangeFeed read(String epoch, long since, int limit) {
+        if (!this.epoch.equals(epoch)) {
+            throw new GoneException("La secuencia " + since + " es de otra instancia o de antes de un reinicio (epoch "
+                    + epoch + ", actual " + this.epoch + "); vuelve a leer el listado completo");
+        }
+        if (since > lastSeq) {
+            throw new GoneException("La secuencia " + since + " es posterior al último cambio (" + lastSeq
+                    + "); vuelve a leer el listado completo");
+        }
+        long oldest = Math.max(1, lastSeq - capacity + 1);
+        if (since < oldest - 1) {
+            throw new GoneException("Los cambios posteriores a " + since
+                    + " ya no se conservan; vuelve a leer el listado completo");
+        }
+        long to = Math.min(lastSeq, since + limit);
+        List<CustomerChange> changes = new ArrayList<>((int) (to - since));
+        for (long seq = since + 1; seq <= to; seq++) {
+            changes.add(ring[(int) (seq % capacity)]);
+        }
+        return new ChangeFeed(changes, epoch, to, to < lastSeq);
+    }
+
+    /**
+     * Como read(), pero si no hay cambios espera hasta timeout a que llegue
+     * alguno. Sin cambios en ese plazo se completa con la respuesta vacía.
+     */
+    public CompletableFuture<ChangeFeed> await(String epoch, long since, int limit, Duration timeout) {
+        synchronized (this) {
+            ChangeFeed feed = read(epoch, since, limit);
+            if (!feed.changes().isEmpty() || timeout.isZero()) {
+                return CompletableFuture.completedFuture(feed);
+            }
+            Waiter waiter = new Waiter(epoch, since, limit, new CompletableFuture<>());
+            waiters.add(waiter);
+            waiter.result()
+                    .completeOnTimeout(feed, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((result, error) -> removeWaiter(waiter));
+            return waiter.result();
+        }
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        List<Waiter> ready;
+        synchronized (this) {
+            long seq = ++lastSeq;
+            ring[(int) (seq % capacity)] = new CustomerChange(seq, event.type(), event.id(),
+                    event.customer() == null ? null : customerMapper.toDto(event.customer()), Instant.now());
+            ready = List.copyOf(waiters);
+            waiters.clear();
+        }
+        // Fuera del lock: completar una espera despacha la respuesta HTTP
+        for (Waiter waiter : ready) {
+            try {
+                waiter.result().complete(read(waiter.epoch(), waiter.since(), waiter.limit()));
+            } catch (GoneException e) {
+                waiter.result().completeExceptionally(e);
+            }
+        }
+    }
+
+    private synchronized void removeWaiter(Waiter waiter) {
+        waiters.remove(waiter);
+    }
+
+    private record Waiter(String epoch, long since, int limit, CompletableFuture<ChangeFeed> result) {
+    }
+}
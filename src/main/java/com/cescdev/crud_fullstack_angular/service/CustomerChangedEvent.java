@@ -0,0 +1,32 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+
+/**
+ * Evento de aplicación que CustomerServiceImpl publica tras cada escritura.
+ *
+ * Los componentes que mantienen estructuras derivadas de la tabla
+ * (índices en memoria, cachés...) lo escuchan con @EventListener en lugar
+ * de acoplarse al servicio. Se publica de forma síncrona, después de que
+ * el repositorio haya confirmado el cambio.
+ *
+ * @param type     tipo de cambio.
+ * @param id       ID del Customer afectado.
+ * @param customer estado tras el cambio (null en DELETED).
+ */
+public record CustomerChangedEvent(Type type, Integer id, Customer customer) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public static CustomerChangedEvent created(Customer c) {
+        return new CustomerChangedEvent(Type.CREATED, c.getId(), c);
+    }
+
+    public static CustomerChangedEvent updated(Customer c) {
+        return new CustomerChangedEvent(Type.UPDATED, c.getId(), c);
+    }
+
+    public static CustomerChangedEvent deleted(Integer id) {
+        return new CustomerChangedEvent(Type.DELETED, id, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.containsKeywordInFields;
+
+/**
+ * Conteos aproximados de Customer, cacheados por palabra clave.
+ *
+ * Cada entrada se recalcula con un count(*) real como mucho una vez por TTL,
+ * de modo que el paginador de Angular puede seguir mostrando un total sin
+ * pagar el conteo exacto en cada página. El número puede ir por detrás de
+ * los cambios recientes durante, como máximo, el TTL configurado.
+ *
+ * Sin estampidas: al caducar una entrada, un solo hilo lanza el count(*) y
+ * el resto sigue recibiendo el valor anterior mientras tanto. Si la palabra
+ * aún no tiene valor, las llamadas simultáneas comparten un único count(*)
+ * ({@link SingleFlight}).
+ *
+ * Propiedades:
+ *   - customers.count.approximate-ttl: vida de cada conteo (por defecto 30s).
+ *   - customers.count.max-keywords:    nº máximo de palabras clave cacheadas (LRU).
+ */
+@Component
+@Profile("!reactive")
+public class CustomerCountCache {
+
+    private final ToLongFunction<String> counter;
+    private final long ttlNanos;
+    private final Map<String, CachedCount> counts;
+    private final SingleFlight<String, Long> loads = new SingleFlight<>();
+    // Palabras cuyo conteo caducado está recalculando ya algún hilo
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public CustomerCountCache(
+            CustomerRepository customerRepository,
+            @Value("${customers.count.approximate-ttl:30s}") Duration ttl,
+            @Value("${customers.count.max-keywords:1000}") int maxKeywords
+    ) {
+        this(key -> key.isEmpty()
+                ? customerRepository.count()
+                : customerRepository.count(containsKeywordInFields(key)), ttl, maxKeywords);
+    }
+
+    CustomerCountCache(ToLongFunction<String> counter, Duration ttl, int maxKeywords) {
+        this.counter = counter;
+        this.ttlNanos = ttl.toNanos();
+        // LinkedHashMap en orden de acceso => expulsa la palabra menos usada
+        this.counts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > maxKeywords;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el total (aproximado) de Customer que contienen la palabra clave.
+     * Con keyword null o vacía, cuenta toda la tabla.
+     */
+    public long approximateCount(String keyword) {
+        String key = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        long now = System.nanoTime();
+
+        CachedCount cached;
+        synchronized (counts) {
+            cached = counts.get(key);
+        }
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return cached.value;
+        }
+
+        if (cached == null) {
+            return loads.execute(key, () -> load(key));
+        }
+        if (!refreshing.add(key)) {
+            return cached.value; // otro hilo ya lo está recalculando
+        }
+        try {
+            return load(key);
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    private long load(String key) {
+        long now = System.nanoTime();
+        long value = counter.applyAsLong(key);
+        synchronized (counts) {
+            counts.put(key, new CachedCount(value, now));
+        }
+        return value;
+    }
+
+    private record CachedCount(long value, long loadedAt) {
+    }
+}
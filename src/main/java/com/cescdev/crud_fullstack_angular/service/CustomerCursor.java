@@ -0,0 +1,78 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición dentro de un recorrido por keyset (seek pagination).
+ *
+ * Guarda los valores de la última fila devuelta según el orden elegido:
+ *   - ID:        sólo el id.
+ *   - LAST_NAME: la tupla (lastName, id), con id como desempate.
+ *
+ * Hacia el cliente viaja como un token opaco (Base64 URL-safe), de modo
+ * que el formato interno puede cambiar sin romper el contrato del API.
+ */
+public final class CustomerCursor {
+
+    /** Órdenes soportados por la paginación por cursor. */
+    public enum Order { ID, LAST_NAME }
+
+    private static final char SEPARATOR = '|';
+
+    private final Order order;
+    private final String lastName;
+    private final Integer id;
+
+    private CustomerCursor(Order order, String lastName, Integer id) {
+        this.order = order;
+        this.lastName = lastName;
+        this.id = id;
+    }
+
+    /**
+     * Cursor que apunta justo después del Customer indicado.
+     */
+    public static CustomerCursor after(Order order, String lastName, Integer id) {
+        return new CustomerCursor(order, order == Order.LAST_NAME ? lastName : null, id);
+    }
+
+    public Order getOrder() { return order; }
+    public String getLastName() { return lastName; }
+    public Integer getId() { return id; }
+
+    /**
+     * Serializa el cursor: "ID|<id>" o "LAST_NAME|<id>|<lastName>".
+     * El lastName va al final para que pueda contener el separador.
+     */
+    public String encode() {
+        String raw = order.name() + SEPARATOR + id
+                + (order == Order.LAST_NAME ? SEPARATOR + lastName : "");
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reconstruye un cursor a partir del token recibido del cliente.
+     * Cualquier token manipulado o corrupto se traduce en un 400.
+     */
+    public static CustomerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            Order order = Order.valueOf(parts[0]);
+            Integer id = Integer.valueOf(parts[1]);
+            if (order == Order.LAST_NAME) {
+                if (parts.length < 3) {
+                    throw new IllegalArgumentException("Falta lastName en el cursor");
+                }
+                return new CustomerCursor(order, parts[2], id);
+            }
+            return new CustomerCursor(order, null, id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new BadRequestException("Cursor de paginación no válido: " + token);
+        }
+    }
+}
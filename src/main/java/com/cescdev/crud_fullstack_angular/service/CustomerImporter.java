@@ -0,0 +1,156 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.BatchItemResult;
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.ImportResult;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Importación masiva de Customer desde un flujo de registros.
+ *
+ * Consume los registros según llegan (el fichero nunca se carga entero) y
+ * los escribe en bloques del tamaño de customers.batch.chunk-size con
+ * {@link CustomerBatchWriter}, cada bloque en su propia transacción.
+ * En memoria sólo hay un bloque y, como mucho, customers.import.max-errors
+ * errores detallados.
+ *
+ * El progreso se registra en el log cada customers.import.log-every registros
+ * y en Micrometer (customers.import.records, etiqueta result).
+ */
+@Component
+@Profile("!reactive")
+public class CustomerImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerImporter.class);
+
+    private final CustomerBatchWriter batchWriter;
+    private final MeterRegistry meterRegistry;
+    private final int maxErrors;
+    private final long logEvery;
+
+    public CustomerImporter(
+            CustomerBatchWriter batchWriter,
+            MeterRegistry meterRegistry,
+            @Value("${customers.import.max-errors:100}") int maxErrors,
+            @Value("${customers.import.log-every:100000}") long logEvery
+    ) {
+        this.batchWriter = batchWriter;
+        this.meterRegistry = meterRegistry;
+        this.maxErrors = maxErrors;
+        this.logEvery = logEvery;
+    }
+
+    public ImportResult importAll(Iterator<ImportRecord> records, DuplicatePolicy policy) {
+        Progress progress = new Progress();
+        List<ImportRecord> chunk = new ArrayList<>(batchWriter.getChunkSize());
+
+        while (records.hasNext() && !progress.aborted) {
+            chunk.add(records.next());
+            if (chunk.size() == batchWriter.getChunkSize()) {
+                writeChunk(chunk, policy, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty() && !progress.aborted) {
+            writeChunk(chunk, policy, progress);
+        }
+
+        ImportResult result = progress.toResult();
+        log.info("Importación terminada: {} registros ({} creados, {} actualizados, {} omitidos, {} inválidos) en {} ms, {} reg/s{}",
+                result.getProcessed(), result.getCreated(), result.getUpdated(), result.getSkipped(),
+                result.getInvalid(), result.getElapsedMillis(), result.getRowsPerSecond(),
+                result.isAborted() ? " [abortada por duplicado]" : "");
+        return result;
+    }
+
+    private void writeChunk(List<ImportRecord> chunk, DuplicatePolicy policy, Progress progress) {
+        long created = progress.created, updated = progress.updated;
+        long skipped = progress.skipped, invalid = progress.invalid;
+
+        // Los registros ilegibles no llegan al writer; el resto conserva su número de registro
+        List<Customer> customers = new ArrayList<>(chunk.size());
+        List<ImportRecord> readable = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            if (record.customer() == null) {
+                progress.fail(record.number(), BatchItemResult.Status.INVALID.name(), record.error());
+                progress.invalid++;
+            } else {
+                customers.add(record.customer());
+                readable.add(record);
+            }
+        }
+
+        BatchResult result = batchWriter.insertAll(customers, policy);
+        for (BatchItemResult item : result.getItems()) {
+            long number = readable.get(item.getIndex()).number();
+            switch (item.getStatus()) {
+                case CREATED -> progress.created++;
+                case UPDATED -> progress.updated++;
+                case INVALID -> {
+                    progress.invalid++;
+                    progress.fail(number, item.getStatus().name(), item.getError());
+                }
+                default -> {
+                    progress.skipped++;
+                    progress.fail(number, item.getStatus().name(), item.getError());
+                    if (policy == DuplicatePolicy.FAIL && item.getStatus() == BatchItemResult.Status.DUPLICATE) {
+                        progress.aborted = true;
+                    }
+                }
+            }
+        }
+
+        count("created", progress.created - created);
+        count("updated", progress.updated - updated);
+        count("skipped", progress.skipped - skipped);
+        count("invalid", progress.invalid - invalid);
+
+        long before = progress.processed;
+        progress.processed += chunk.size();
+        if (before / logEvery != progress.processed / logEvery) {
+            log.info("Importación en curso: {} registros, {} reg/s",
+                    progress.processed, progress.toResult().getRowsPerSecond());
+        }
+    }
+
+    private void count(String result, long amount) {
+        if (amount > 0) {
+            meterRegistry.counter("customers.import.records", "result", result).increment(amount);
+        }
+    }
+
+    /**
+     * Contadores de una importación en curso.
+     */
+    private final class Progress {
+        final long start = System.nanoTime();
+        final List<ImportResult.ImportError> errors = new ArrayList<>();
+        long processed;
+        long created;
+        long updated;
+        long skipped;
+        long invalid;
+        boolean aborted;
+
+        void fail(long number, String status, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportResult.ImportError(number, status, message));
+            }
+        }
+
+        ImportResult toResult() {
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            return new ImportResult(processed, created, updated, skipped, invalid, aborted, elapsed, List.copyOf(errors));
+        }
+    }
+}
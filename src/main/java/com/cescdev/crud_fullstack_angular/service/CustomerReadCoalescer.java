@@ -0,0 +1,76 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Agrupa lecturas idénticas concurrentes de CustomerService (ver {@link SingleFlight}):
+ * cuando muchas pestañas piden a la vez el mismo ID o la misma página, sólo
+ * una llega a la base de datos y el resto comparte su resultado.
+ *
+ *   - findById: por ID. CustomerCache entrega una copia a cada llamador.
+ *   - Listados y búsquedas proyectados: por (keyword, Pageable, CountMode, tipo).
+ *     Son DTOs inmutables, así que compartirlos es seguro.
+ *   - Con cada {@link CustomerChangedEvent} se sueltan las consultas en vuelo
+ *     afectadas: quien lea después de una escritura no se une a una anterior.
+ *
+ * Publica en Micrometer customers.coalescing.calls con las etiquetas
+ * operation=findById|list y result=leader|follower. El ratio de agrupación es
+ * follower / (leader + follower).
+ * Con customers.coalescing.enabled=false cada llamada hace su consulta.
+ */
+@Component
+@Profile("!reactive")
+public class CustomerReadCoalescer {
+
+    private final boolean enabled;
+    private final SingleFlight<Integer, Customer> byId = new SingleFlight<>();
+    private final SingleFlight<PageKey, Slice<?>> pages = new SingleFlight<>();
+
+    public CustomerReadCoalescer(
+            @Value("${customers.coalescing.enabled:true}") boolean enabled,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        register(meterRegistry, "findById", byId);
+        register(meterRegistry, "list", pages);
+    }
+
+    public Customer findById(Integer id, Supplier<Customer> loader) {
+        return enabled ? byId.execute(id, loader) : loader.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Slice<T> page(String keyword, Pageable pageable, CountMode countMode, Class<T> type,
+                             Supplier<Slice<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return (Slice<T>) pages.execute(new PageKey(keyword, pageable, countMode, type), loader::get);
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        byId.forget(event.id());
+        pages.forgetAll();
+    }
+
+    private static void register(MeterRegistry meterRegistry, String operation, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("customers.coalescing.calls", flight, SingleFlight::leaders)
+                .tag("operation", operation).tag("result", "leader").register(meterRegistry);
+        FunctionCounter.builder("customers.coalescing.calls", flight, SingleFlight::followers)
+                .tag("operation", operation).tag("result", "follower").register(meterRegistry);
+    }
+
+    private record PageKey(String keyword, Pageable pageable, CountMode countMode, Class<?> type) {
+    }
+}
@@ -0,0 +1,217 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Motor de búsqueda en memoria para CustomerService.search.
+ *
+ * Mantiene un {@link NgramIndex} sobre firstName, lastName y email:
+ *   - Se construye al arrancar la aplicación, leyendo la tabla por bloques.
+ *   - Se actualiza con cada {@link CustomerChangedEvent}.
+ *   - Mientras no está listo, el servicio sigue usando el LIKE de siempre.
+ *   - Sólo resuelve palabras con algún trigrama (3 o más caracteres): sin palabra
+ *     o con 1-2 caracteres habría que recorrer todos los documentos, y la BBDD
+ *     lo hace mejor.
+ *
+ * Los eventos son sólo los de esta instancia: con varias instancias, lo escrito
+ * en las demás (o directamente en la BBDD) no llega. Por eso cada
+ * customers.search.reconcile-interval (por defecto 5m) se reconstruye el índice
+ * entero desde la tabla y se sustituye; una búsqueda puede ir como mucho ese
+ * plazo por detrás de las escrituras de otras instancias. Con 0 no se reconstruye
+ * (sólo para despliegues de una instancia).
+ *
+ * Sólo se registra con customers.search.engine=index (por defecto: like).
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.search.engine", havingValue = "index")
+public class CustomerSearchIndex implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSearchIndex.class);
+
+    // Filas leídas por consulta al construir el índice
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final Duration reconcileInterval;
+    private final ScheduledExecutorService reconcile = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("customer-search-reconcile").daemon().factory());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Se sustituye entero en cada reconstrucción (con el lock de escritura)
+    private NgramIndex index = new NgramIndex();
+    // Eventos llegados durante una reconstrucción en curso (null si no hay ninguna)
+    private List<CustomerChangedEvent> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public CustomerSearchIndex(
+            CustomerRepository customerRepository,
+            @Value("${customers.search.reconcile-interval:5m}") Duration reconcileInterval
+    ) {
+        this.customerRepository = customerRepository;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * true si conviene resolver la palabra con el índice. Sin palabra es el listado
+     * completo: la BBDD lo pagina con LIMIT sobre un índice de orden, mientras que
+     * aquí habría que ordenar todos los ids en cada petición. Con menos de un
+     * trigrama habría que recorrer todos los documentos.
+     */
+    public boolean handles(String keyword) {
+        return keyword != null && !keyword.isBlank() && NgramIndex.normalize(keyword).length() >= NgramIndex.GRAM;
+    }
+
+    /**
+     * Ids (ordenados) de los Customer que contienen la palabra en algún campo.
+     */
+    public int[] search(String keyword) {
+        lock.readLock().lock();
+        try {
+            return index.search(keyword);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carga inicial y, desde ahí, reconstrucción periódica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        rebuild();
+        ready = true;
+        log.info("Índice de búsqueda construido: {} customers en {} ms",
+                size(), (System.nanoTime() - start) / 1_000_000);
+
+        if (reconcileInterval.isPositive()) {
+            reconcile.scheduleWithFixedDelay(this::reconcile, reconcileInterval.toMillis(),
+                    reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Construye un índice nuevo recorriendo la tabla por id con keyset (sin bloquear
+     * las búsquedas, que siguen usando el actual), le aplica en orden los eventos
+     * llegados mientras tanto y lo pone en lugar del actual. Así un cambio local
+     * hecho durante la lectura nunca queda pisado por datos más antiguos.
+     */
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NgramIndex fresh = new NgramIndex();
+        try {
+            CustomerCursor cursor = null;
+            List<Customer> batch;
+            do {
+                batch = customerRepository.findBy(CustomerSpecifications.afterCursor(cursor), q -> q
+                        .sortBy(Sort.by("id"))
+                        .limit(LOAD_BATCH_SIZE)
+                        .all());
+                batch.forEach(c -> put(fresh, c));
+                if (!batch.isEmpty()) {
+                    Customer last = batch.get(batch.size() - 1);
+                    cursor = CustomerCursor.after(CustomerCursor.Order.ID, null, last.getId());
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // Se queda el índice actual
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach(event -> apply(fresh, event));
+            changedDuringRebuild = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reconcile.shutdownNow();
+    }
+
+    private void reconcile() {
+        long start = System.nanoTime();
+        try {
+            rebuild();
+            log.debug("Índice de búsqueda reconstruido: {} customers en {} ms",
+                    size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Se reintenta en el siguiente intervalo; mientras, sigue el índice anterior
+            log.warn("No se pudo reconstruir el índice de búsqueda", e);
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void apply(NgramIndex target, CustomerChangedEvent event) {
+        if (event.type() == CustomerChangedEvent.Type.DELETED) {
+            target.remove(event.id());
+        } else {
+            put(target, event.customer());
+        }
+    }
+
+    private static void put(NgramIndex target, Customer c) {
+        target.put(c.getId(), c.getFirstName(), c.getLastName(), c.getEmail());
+    }
+}
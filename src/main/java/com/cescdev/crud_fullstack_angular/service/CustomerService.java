@@ -1,14 +1,41 @@
 package com.cescdev.crud_fullstack_angular.service;
 
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.ImportResult;
 import com.cescdev.crud_fullstack_angular.entity.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     Customer save(Customer customer);
     Page<Customer> findAll(Pageable pageable);
     Customer findById (Integer id);
+    Long findCachedVersion(Integer id);
+    String currentTableVersion();
     void deleteById(Integer id);
     Customer update(Customer customer);
+    Customer updateById(Integer id, Customer data, Long expectedVersion);
+    Customer patch(Integer id, Customer changes, Long expectedVersion);
     Page<Customer> search(String keyword, Pageable pageable);
+    Slice<Customer> findAll(Pageable pageable, CountMode countMode);
+    Slice<Customer> search(String keyword, Pageable pageable, CountMode countMode);
+    CursorPage<Customer> findAllAfter(CustomerCursor after, CustomerCursor.Order order, int size);
+    void export(String keyword, Consumer<Customer> sink);
+    BatchResult saveAll(List<Customer> customers);
+    BatchResult updateAll(List<Customer> customers);
+    BatchResult deleteAllById(List<Integer> ids);
+    ImportResult importAll(Iterator<ImportRecord> records, DuplicatePolicy duplicatePolicy);
+    CursorPage<Customer> searchAfter(String keyword, CustomerCursor after, CustomerCursor.Order order, int size);
+    Slice<CustomerOutputDto> findAllProjected(Pageable pageable, CountMode countMode);
+    Slice<CustomerOutputDto> searchProjected(String keyword, Pageable pageable, CountMode countMode);
+    CursorPage<CustomerOutputDto> findAllAfterProjected(CustomerCursor after, CustomerCursor.Order order, int size);
+    CursorPage<CustomerOutputDto> searchAfterProjected(String keyword, CustomerCursor after, CustomerCursor.Order order, int size);
+    List<CustomerOutputDto> suggest(String prefix, int limit);
 }
@@ -1,23 +1,116 @@
 package com.cescdev.crud_fullstack_angular.service;
 
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.ImportResult;
 import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.PreconditionFailedException;
 import com.cescdev.crud_fullstack_angular.exception.ResourceNotFoundException;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapper;
 import com.cescdev.crud_fullstack_angular.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-// Importamos la Specification estática que construimos
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Importamos las Specifications estáticas que construimos
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.afterCursor;
 import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.containsKeywordInFields;
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.idIn;
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.keysetSort;
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.startsWithInFields;
 
 @Service // Indica que esta clase es un servicio de Spring; se registra como bean
+@Profile("!reactive") // Variante JPA (por defecto); con el perfil reactive la sustituye ReactiveCustomerServiceImpl
+// Un timer customers.service por método (etiquetas class y method), con percentiles
+@Timed(value = "customers.service", percentiles = {0.5, 0.95, 0.99}, histogram = true)
 public class CustomerServiceImpl implements CustomerService {
 
     // Repositorio JPA para Customer, inyectado en el constructor
     private final CustomerRepository customerRepository;
+    // Conteos cacheados para el modo CountMode.APPROXIMATE
+    private final CustomerCountCache customerCountCache;
+    // Publica CustomerChangedEvent tras cada escritura
+    private final ApplicationEventPublisher eventPublisher;
+    // Índice de búsqueda en memoria; sólo existe con customers.search.engine=index
+    private final CustomerSearchIndex searchIndex;
+    // Índice de autocompletado en memoria; no existe con customers.suggest.engine=database
+    private final CustomerSuggestIndex suggestIndex;
+    // Caché read-through de findById (se invalida sola con CustomerChangedEvent)
+    private final CustomerCache customerCache;
+    // Lecturas idénticas concurrentes comparten una sola consulta
+    private final CustomerReadCoalescer readCoalescer;
+    // Altas, modificaciones y bajas por lotes con JDBC batching
+    private final CustomerBatchWriter batchWriter;
+    // Versión de la tabla para los ETag de los listados
+    private final CustomerTableVersion tableVersion;
+    // Importación masiva en streaming, apoyada en batchWriter
+    private final CustomerImporter importer;
+    // Filas por viaje al recorrer la tabla en export()
+    private final int exportFetchSize;
+    // Transacción de patch(): el evento se publica ya con el commit hecho
+    private final TransactionTemplate transactionTemplate;
+    // Transacción de sólo lectura de las consultas agrupadas (sólo la abre quien consulta)
+    private final TransactionTemplate readOnlyTransaction;
+    // Copia parcial de campos en patch()
+    private final CustomerMapper customerMapper;
+
+    // Máximo de ids que la búsqueda indexada pasa a un IN (...) cuando hay que ordenar en BBDD
+    private static final int MAX_INDEXED_IDS_IN_QUERY = 1000;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository) {
+    public CustomerServiceImpl(
+            CustomerRepository customerRepository,
+            CustomerCountCache customerCountCache,
+            ApplicationEventPublisher eventPublisher,
+            Optional<CustomerSearchIndex> searchIndex,
+            Optional<CustomerSuggestIndex> suggestIndex,
+            CustomerCache customerCache,
+            CustomerReadCoalescer readCoalescer,
+            CustomerBatchWriter batchWriter,
+            CustomerImporter importer,
+            CustomerTableVersion tableVersion,
+            PlatformTransactionManager transactionManager,
+            CustomerMapper customerMapper,
+            @Value("${customers.export.fetch-size:1000}") int exportFetchSize
+    ) {
         this.customerRepository = customerRepository;
+        this.customerCountCache = customerCountCache;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex.orElse(null);
+        this.suggestIndex = suggestIndex.orElse(null);
+        this.customerCache = customerCache;
+        this.readCoalescer = readCoalescer;
+        this.batchWriter = batchWriter;
+        this.importer = importer;
+        this.tableVersion = tableVersion;
+        this.exportFetchSize = exportFetchSize;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.customerMapper = customerMapper;
     }
 
     /**
@@ -29,7 +122,9 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public Customer save(Customer customer) {
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        eventPublisher.publishEvent(CustomerChangedEvent.created(saved));
+        return saved;
     }
 
     /**
@@ -50,24 +145,53 @@ public class CustomerServiceImpl implements CustomerService {
      * findById(id):
      *   - Devuelve Optional<Customer>.
      *   - Si no existe, lanzamos ResourceNotFoundException.
+     * Pasa por CustomerCache: los IDs calientes sólo cuestan, cada revalidate-after,
+     * la consulta de su versión. Los fallos cargan de la BBDD saltándose la caché
+     * de segundo nivel, que podría tener la fila que CustomerCache acaba de descartar.
+     * Los fallos simultáneos del mismo ID comparten una consulta (CustomerReadCoalescer).
      */
 
     @Override
     public Customer findById(Integer id) {
-        return customerRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Customer con id " + id + " no se encuentra"));
+        return customerCache.get(id,
+                key -> readCoalescer.findById(key, () -> customerRepository.findFreshById(key)
+                        .orElseThrow(() -> new ResourceNotFoundException("Customer con id " + key + " no se encuentra"))),
+                customerRepository::findVersionById);
+    }
+
+    /**
+     * Versión (@Version) del Customer si CustomerCache la ha comprobado hace
+     * menos de revalidate-after; null si no.
+     * Nunca va a la base de datos: si no se sabe, el llamador hace findById.
+     */
+
+    @Override
+    public Long findCachedVersion(Integer id) {
+        return customerCache.cachedVersion(id);
+    }
+
+    /**
+     * Token que cambia con cada escritura sobre customers (ver CustomerTableVersion).
+     */
+
+    @Override
+    public String currentTableVersion() {
+        return tableVersion.current();
     }
 
     /**
      * Borra un Customer por su ID.
-     * deleteById(id):
-     *   - Ejecuta DELETE FROM customers WHERE id = ?
-     *   - Si no existe, JPA lanza EmptyResultDataAccessException.
+     * deleteDirect(id):
+     *   - Ejecuta DELETE FROM customers WHERE id = ? sin SELECT previo.
+     *   - Si no borra ninguna fila, el id no existía: ResourceNotFoundException (404).
      */
 
     @Override
     public void deleteById(Integer id) {
-        customerRepository.deleteById(id);
+        if (customerRepository.deleteDirect(id) == 0) {
+            throw new ResourceNotFoundException("Customer con id " + id + " no se encuentra");
+        }
+        eventPublisher.publishEvent(CustomerChangedEvent.deleted(id));
     }
 
     /**
@@ -78,7 +202,71 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public Customer update(Customer customer) {
-        return customerRepository.save(customer);
+        Customer updated = customerRepository.save(customer);
+        eventPublisher.publishEvent(CustomerChangedEvent.updated(updated));
+        return updated;
+    }
+
+    /**
+     * Reemplaza los datos de un Customer con un único UPDATE (sin SELECT ni merge).
+     * - Si expectedVersion viene (If-Match), el UPDATE sólo aplica sobre esa versión
+     *   y la nueva es expectedVersion + 1.
+     * - Si no, la nueva versión se lee justo después en la misma transacción: el
+     *   UPDATE deja la fila bloqueada hasta el commit, así que nadie la cambia entre medias.
+     * - 0 filas afectadas: 404 si el id no existe, 412 si existe con otra versión
+     *   (sólo en ese caso de error se hace la consulta extra para distinguirlos).
+     *
+     * @return el Customer tal como queda, con su nueva versión.
+     */
+
+    @Override
+    public Customer updateById(Integer id, Customer data, Long expectedVersion) {
+        Long version = transactionTemplate.execute(status -> {
+            if (expectedVersion != null) {
+                int updated = customerRepository.updateDirectIfVersion(id, expectedVersion,
+                        data.getFirstName(), data.getLastName(), data.getEmail());
+                return updated == 0 ? null : expectedVersion + 1;
+            }
+            int updated = customerRepository.updateDirect(id, data.getFirstName(), data.getLastName(), data.getEmail());
+            return updated == 0 ? null : customerRepository.findVersionById(id);
+        });
+        if (version == null) {
+            if (expectedVersion != null && customerRepository.existsById(id)) {
+                throw new PreconditionFailedException(
+                        "La versión del cliente " + id + " ya no es " + expectedVersion);
+            }
+            throw new ResourceNotFoundException("Customer con id " + id + " no se encuentra");
+        }
+        Customer result = new Customer(id, data.getFirstName(), data.getLastName(), data.getEmail());
+        result.setVersion(version);
+        eventPublisher.publishEvent(CustomerChangedEvent.updated(result));
+        return result;
+    }
+
+    /**
+     * Modificación parcial: sólo se aplican los campos no nulos de changes.
+     * Carga la entidad y deja que Hibernate genere el UPDATE; con @DynamicUpdate
+     * en Customer, éste sólo incluye las columnas que realmente cambian
+     * (y ninguno si no cambia nada). @Version sigue protegiendo de escrituras
+     * concurrentes entre la lectura y el UPDATE.
+     */
+
+    @Override
+    public Customer patch(Integer id, Customer changes, Long expectedVersion) {
+        Customer patched = transactionTemplate.execute(status -> {
+            Customer entity = customerRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Customer con id " + id + " no se encuentra"));
+            if (expectedVersion != null && !expectedVersion.equals(entity.getVersion())) {
+                throw new PreconditionFailedException(
+                        "La versión del cliente " + id + " ya no es " + expectedVersion);
+            }
+            customerMapper.patchEntity(changes, entity);
+            // flush dentro de la transacción para que la versión devuelta ya sea la nueva
+            customerRepository.flush();
+            return entity;
+        });
+        eventPublisher.publishEvent(CustomerChangedEvent.updated(patched));
+        return patched;
     }
 
     /**
@@ -87,13 +275,321 @@ public class CustomerServiceImpl implements CustomerService {
      *   - Specification construye el WHERE según keyword.
      *   - Pageable define página y tamaño.
      *   - Devuelve Page<Customer> filtrado.
+     * Con customers.search.engine=index y el índice ya construido, se resuelve
+     * primero contra el índice en memoria (ver searchIndexed).
      */
 
     @Override
     public Page<Customer> search(String keyword, Pageable pageable) {
-        return customerRepository.findAll(
-                containsKeywordInFields(keyword),
-                pageable
-        );
+        return page(keyword, pageable, ENTITIES);
+    }
+
+    /**
+     * Exporta todos los Customer (filtrados por keyword si viene) en orden de id.
+     * Recorre la tabla con un cursor de sólo avance y entrega cada fila a sink
+     * según llega, ya desvinculada del contexto de persistencia: la memoria
+     * usada no depende del tamaño de la tabla.
+     * La transacción de sólo lectura mantiene abierto el cursor mientras dura.
+     */
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(String keyword, Consumer<Customer> sink) {
+        try (Stream<Customer> rows = customerRepository.streamAll(containsKeywordInFields(keyword), exportFetchSize)) {
+            rows.forEach(sink);
+        }
+    }
+
+    /**
+     * Alta por lotes: valida cada elemento, descarta emails repetidos y
+     * hace los INSERT en bloques con un único executeBatch() por bloque.
+     * Los elementos erróneos se reportan en el BatchResult sin abortar el resto.
+     */
+
+    @Override
+    public BatchResult saveAll(List<Customer> customers) {
+        return batchWriter.insertAll(customers);
+    }
+
+    /**
+     * Modificación por lotes (UPDATE ... WHERE id = ? agrupados).
+     * Los ids inexistentes se reportan como NOT_FOUND.
+     */
+
+    @Override
+    public BatchResult updateAll(List<Customer> customers) {
+        return batchWriter.updateAll(customers);
+    }
+
+    /**
+     * Borrado por lotes (DELETE ... WHERE id = ? agrupados).
+     * Los ids inexistentes se reportan como NOT_FOUND.
+     */
+
+    @Override
+    public BatchResult deleteAllById(List<Integer> ids) {
+        return batchWriter.deleteAllById(ids);
+    }
+
+    /**
+     * Importación masiva: consume los registros según llegan y los escribe en
+     * bloques transaccionales de tamaño fijo. Los emails ya existentes se tratan
+     * según duplicatePolicy (SKIP, UPSERT o FAIL).
+     */
+
+    @Override
+    public ImportResult importAll(Iterator<ImportRecord> records, DuplicatePolicy duplicatePolicy) {
+        return importer.importAll(records, duplicatePolicy);
+    }
+
+    /**
+     * Listado paginado eligiendo cómo se calcula el total.
+     * Ver {@link #search(String, Pageable, CountMode)}.
+     */
+
+    @Override
+    public Slice<Customer> findAll(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return findAll(pageable);
+        }
+        return slice(null, pageable, countMode, ENTITIES);
+    }
+
+    /**
+     * Búsqueda paginada eligiendo cómo se calcula el total:
+     *   - EXACT:       igual que search(keyword, pageable): SELECT + SELECT count(*).
+     *   - NONE:        un único SELECT con LIMIT size + 1; devuelve Slice con hasNext.
+     *   - APPROXIMATE: el SELECT de NONE + total cacheado en CustomerCountCache.
+     */
+
+    @Override
+    public Slice<Customer> search(String keyword, Pageable pageable, CountMode countMode) {
+        return slice(keyword, pageable, countMode, ENTITIES);
+    }
+
+    /**
+     * Listado por cursor (keyset) sin filtro.
+     * Ver {@link #searchAfter(String, CustomerCursor, CustomerCursor.Order, int)}.
+     */
+
+    @Override
+    public CursorPage<Customer> findAllAfter(CustomerCursor after, CustomerCursor.Order order, int size) {
+        return scroll(null, after, order, size, ENTITIES);
+    }
+
+    /**
+     * Búsqueda por cursor (keyset):
+     *   - WHERE <keyword en firstName/lastName/email> AND <posición tras el cursor>
+     *   - ORDER BY según el modo del cursor, LIMIT size + 1
+     *   - Sin OFFSET ni count(*): la fila extra sólo indica si hay página siguiente.
+     */
+
+    @Override
+    public CursorPage<Customer> searchAfter(String keyword, CustomerCursor after, CustomerCursor.Order order, int size) {
+        return scroll(keyword, after, order, size, ENTITIES);
+    }
+
+    // ----------- LECTURA PROYECTADA (SIN ENTIDADES) -----------
+    // Mismos algoritmos que los métodos anteriores, pero cada fila se construye
+    // directamente como CustomerOutputDto (SELECT new ...): no hay entidades
+    // gestionadas, ni snapshots para dirty checking, ni copia posterior a DTO.
+
+    /**
+     * {@link #findAll(Pageable, CountMode)} devolviendo DTOs.
+     * Las peticiones idénticas simultáneas comparten una consulta (CustomerReadCoalescer);
+     * la transacción de sólo lectura la abre únicamente quien la ejecuta.
+     */
+
+    @Override
+    public Slice<CustomerOutputDto> findAllProjected(Pageable pageable, CountMode countMode) {
+        return readCoalescer.page(null, pageable, countMode, CustomerOutputDto.class,
+                () -> readOnlyTransaction.execute(status -> countMode == CountMode.EXACT
+                        ? customerRepository.findPage(null, pageable, CustomerOutputDto.class)
+                        : slice(null, pageable, countMode, DTOS)));
+    }
+
+    /**
+     * {@link #search(String, Pageable, CountMode)} devolviendo DTOs.
+     * Agrupada igual que findAllProjected.
+     */
+
+    @Override
+    public Slice<CustomerOutputDto> searchProjected(String keyword, Pageable pageable, CountMode countMode) {
+        return readCoalescer.page(keyword, pageable, countMode, CustomerOutputDto.class,
+                () -> readOnlyTransaction.execute(status -> slice(keyword, pageable, countMode, DTOS)));
+    }
+
+    /**
+     * {@link #findAllAfter(CustomerCursor, CustomerCursor.Order, int)} devolviendo DTOs.
+     */
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerOutputDto> findAllAfterProjected(CustomerCursor after, CustomerCursor.Order order, int size) {
+        return scroll(null, after, order, size, DTOS);
+    }
+
+    /**
+     * {@link #searchAfter(String, CustomerCursor, CustomerCursor.Order, int)} devolviendo DTOs.
+     */
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerOutputDto> searchAfterProjected(String keyword, CustomerCursor after,
+                                                              CustomerCursor.Order order, int size) {
+        return scroll(keyword, after, order, size, DTOS);
+    }
+
+    /**
+     * Autocompletado: hasta limit customers con firstName, lastName o email que
+     * empiezan por prefix, sin distinguir mayúsculas ni acentos.
+     * Con CustomerSuggestIndex listo no se toca la BBDD; si no existe o aún se
+     * está construyendo, se resuelve con LIKE 'prefijo%'.
+     */
+
+    @Override
+    public List<CustomerOutputDto> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (suggestIndex != null && suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit);
+        }
+        return customerRepository.findList(startsWithInFields(prefix.strip()),
+                Sort.by("lastName", "firstName", "id"), limit, CustomerOutputDto.class);
+    }
+
+    // ----------- IMPLEMENTACIÓN COMÚN -----------
+
+    /**
+     * Tipo de fila que devuelve una lectura: la entidad o un DTO construido en la
+     * propia consulta. id y lastName se usan para reordenar y generar cursores.
+     */
+    private record Rows<T>(Class<T> type, Function<T, Integer> id, Function<T, String> lastName) {
+    }
+
+    private static final Rows<Customer> ENTITIES =
+            new Rows<>(Customer.class, Customer::getId, Customer::getLastName);
+    private static final Rows<CustomerOutputDto> DTOS =
+            new Rows<>(CustomerOutputDto.class, CustomerOutputDto::id, CustomerOutputDto::lastName);
+
+    /**
+     * true si la palabra se resuelve con el índice de trigramas: índice listo y
+     * palabra con algún trigrama. Sin palabra o con 1-2 caracteres el índice tendría
+     * que recorrer todos los documentos; la BBDD lo hace mejor (índices de orden, LIMIT).
+     */
+    private boolean useSearchIndex(String keyword) {
+        return searchIndex != null && searchIndex.isReady() && searchIndex.handles(keyword);
+    }
+
+    /**
+     * Página con total exacto: primero el índice (si aplica), si no el LIKE.
+     */
+
+    private <T> Page<T> page(String keyword, Pageable pageable, Rows<T> rows) {
+        if (useSearchIndex(keyword)) {
+            Slice<T> indexed = searchIndexed(keyword, pageable, CountMode.EXACT, rows);
+            if (indexed != null) {
+                return (Page<T>) indexed;
+            }
+        }
+        return customerRepository.findPage(containsKeywordInFields(keyword), pageable, rows.type());
+    }
+
+    private <T> Slice<T> slice(String keyword, Pageable pageable, CountMode countMode, Rows<T> rows) {
+        if (useSearchIndex(keyword)) {
+            Slice<T> indexed = searchIndexed(keyword, pageable, countMode, rows);
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        if (countMode == CountMode.EXACT) {
+            return customerRepository.findPage(containsKeywordInFields(keyword), pageable, rows.type());
+        }
+
+        Slice<T> slice = customerRepository.findSlice(containsKeywordInFields(keyword), pageable, rows.type());
+        if (countMode == CountMode.NONE) {
+            return slice;
+        }
+
+        // El total cacheado puede ir por detrás; nunca lo dejamos por debajo de lo ya visto
+        long seen = pageable.isPaged()
+                ? pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0)
+                : slice.getNumberOfElements();
+        long total = Math.max(customerCountCache.approximateCount(keyword), seen);
+        return new PageImpl<>(slice.getContent(), pageable, total);
+    }
+
+    /**
+     * Búsqueda apoyada en el índice de trigramas:
+     *   - El índice devuelve todos los ids que casan (ordenados): con EXACT o
+     *     APPROXIMATE el total es exacto y gratis; con NONE se devuelve un Slice
+     *     sin total, como en la BBDD.
+     *   - Orden por id (o sin orden): se pagina sobre los ids en memoria y sólo se
+     *     cargan de BBDD los de la página (SELECT ... WHERE id IN (...)).
+     *   - Otro orden: la BBDD ordena, pero acotada a WHERE id IN (<ids del índice>).
+     * Devuelve null si hay demasiados ids para un IN; en ese caso se usa el LIKE
+     * con el mismo CountMode.
+     */
+
+    private <T> Slice<T> searchIndexed(String keyword, Pageable pageable, CountMode countMode, Rows<T> rows) {
+        int[] ids = searchIndex.search(keyword);
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+
+        List<T> content;
+        boolean hasNext;
+        if (sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1)) {
+            if (idOrder != null && idOrder.isDescending()) {
+                ids = reversed(ids);
+            }
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), ids.length) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), ids.length) : ids.length;
+            List<Integer> pageIds = Arrays.stream(ids, from, to).boxed().toList();
+
+            // El IN (...) no garantiza el orden: lo restauramos según los ids
+            Map<Integer, T> byId = customerRepository.findList(idIn(pageIds), Sort.unsorted(), 0, rows.type())
+                    .stream()
+                    .collect(Collectors.toMap(rows.id(), Function.identity()));
+            content = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+            hasNext = to < ids.length;
+        } else if (ids.length <= MAX_INDEXED_IDS_IN_QUERY) {
+            List<Integer> allIds = Arrays.stream(ids).boxed().toList();
+            Slice<T> slice = customerRepository.findSlice(idIn(allIds), pageable, rows.type());
+            content = slice.getContent();
+            hasNext = slice.hasNext();
+        } else {
+            return null;
+        }
+        return countMode == CountMode.NONE
+                ? new SliceImpl<>(content, pageable, hasNext)
+                : new PageImpl<>(content, pageable, ids.length);
+    }
+
+    private static int[] reversed(int[] ids) {
+        int[] out = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            out[i] = ids[ids.length - 1 - i];
+        }
+        return out;
+    }
+
+    private <T> CursorPage<T> scroll(String keyword, CustomerCursor after, CustomerCursor.Order order, int size,
+                                     Rows<T> rows) {
+        // Si viene cursor, manda su orden: cambiarlo a mitad de recorrido no tendría sentido
+        CustomerCursor.Order effectiveOrder = after != null ? after.getOrder() : order;
+
+        Specification<Customer> spec = containsKeywordInFields(keyword).and(afterCursor(after));
+        List<T> found = customerRepository.findList(spec, keysetSort(effectiveOrder), size + 1, rows.type());
+
+        if (found.size() <= size) {
+            return new CursorPage<>(found, null);
+        }
+
+        // Descartamos la fila sobrante y generamos el cursor a partir de la última devuelta
+        List<T> content = found.subList(0, size);
+        T last = content.get(size - 1);
+        String next = CustomerCursor.after(effectiveOrder, rows.lastName().apply(last), rows.id().apply(last)).encode();
+        return new CursorPage<>(content, next);
     }
 }
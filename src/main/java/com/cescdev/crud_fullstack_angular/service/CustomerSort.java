@@ -0,0 +1,101 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Orden de los listados paginados (?sort= de GET /api/customers).
+ *
+ * Sólo se admiten los campos con un índice que sirve el orden completo, con
+ * desempates fijos para que la paginación por OFFSET sea estable (dos filas
+ * empatadas nunca cambian de página entre peticiones):
+ *   - id:        (id), la clave primaria.
+ *   - lastName:  (lastName, firstName, id), idx_customers_last_name_first_name_id.
+ *   - firstName: (firstName, lastName, id), idx_customers_first_name_last_name_id.
+ *   - email:     (email), único: no necesita desempate.
+ * Los índices se crean en las migraciones (db/migration, V2__sort_indexes.sql).
+ *
+ * La petición se reescribe al orden indexado que corresponde:
+ *   - Sin sort: por id ascendente.
+ *   - Manda el primer campo y su dirección; todos los desempates van en la misma
+ *     dirección (un índice se recorre entero hacia delante o hacia atrás).
+ *   - Los campos siguientes y ignoreCase se descartan: el orden ya es total y la
+ *     colación de MySQL no distingue mayúsculas.
+ * Cualquier campo fuera de la lista se rechaza con BadRequestException (400).
+ */
+public final class CustomerSort {
+
+    /** Campos por los que se puede ordenar, con su orden indexado completo. */
+    public enum Key {
+        ID("id"),
+        LAST_NAME("lastName", "firstName", "id"),
+        FIRST_NAME("firstName", "lastName", "id"),
+        EMAIL("email");
+
+        private final List<String> properties;
+
+        Key(String... properties) {
+            this.properties = List.of(properties);
+        }
+
+        /** Campo que pide el cliente en ?sort=. */
+        public String property() {
+            return properties.getFirst();
+        }
+
+        /** Campo y desempates, en el orden del índice. */
+        public List<String> properties() {
+            return properties;
+        }
+
+        public Sort sort(Sort.Direction direction) {
+            return Sort.by(direction, properties.toArray(String[]::new));
+        }
+
+        static Key of(String property) {
+            for (Key key : values()) {
+                if (key.property().equals(property)) {
+                    return key;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Orden cuando el cliente no pide ninguno. */
+    public static final Sort DEFAULT = Key.ID.sort(Sort.Direction.ASC);
+
+    private CustomerSort() {
+    }
+
+    /**
+     * Orden indexado equivalente al pedido (ver la descripción de la clase).
+     */
+    public static Sort managed(Sort requested) {
+        for (Sort.Order order : requested) {
+            if (Key.of(order.getProperty()) == null) {
+                throw new BadRequestException("No se puede ordenar por: " + order.getProperty()
+                        + ". Campos admitidos: " + Arrays.stream(Key.values())
+                        .map(Key::property).collect(Collectors.joining(", ")));
+            }
+        }
+        Sort.Order first = requested.stream().findFirst().orElse(null);
+        return first == null ? DEFAULT : Key.of(first.getProperty()).sort(first.getDirection());
+    }
+
+    /**
+     * El mismo Pageable (página y tamaño) con el orden de {@link #managed(Sort)}.
+     */
+    public static Pageable managed(Pageable pageable) {
+        Sort sort = managed(pageable.getSort());
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                : Pageable.unpaged(sort);
+    }
+}
@@ -1,9 +1,12 @@
 package com.cescdev.crud_fullstack_angular.service;
 
 import com.cescdev.crud_fullstack_angular.entity.Customer;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import jakarta.persistence.criteria.Predicate;
 
+import java.util.Collection;
+
 public class CustomerSpecifications {
 
     /**
@@ -54,4 +57,74 @@ public class CustomerSpecifications {
             return cb.or(firstNameMatch, lastNameMatch, emailMatch);
         };
     }
+
+    /**
+     * Devuelve una Specification que filtra Customer cuyo firstName, lastName o
+     * email empieza por el prefijo (case-insensitive). Es la alternativa en BBDD
+     * del autocompletado: LIKE 'prefijo%' puede usar un índice, '%palabra%' no.
+     */
+
+    public static Specification<Customer> startsWithInFields(String prefix) {
+        return (root, query, cb) -> {
+            // % y _ del prefijo se buscan tal cual, no como comodines
+            String likePattern = prefix.toLowerCase()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_") + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("firstName")), likePattern, '\\'),
+                    cb.like(cb.lower(root.get("lastName")), likePattern, '\\'),
+                    cb.like(cb.lower(root.get("email")), likePattern, '\\')
+            );
+        };
+    }
+
+    /**
+     * Devuelve una Specification que posiciona la consulta justo después del cursor
+     * (keyset / seek pagination), en lugar de saltar filas con OFFSET.
+     *   - Orden ID:        WHERE id > :id
+     *   - Orden LAST_NAME: WHERE lastName > :ln OR (lastName = :ln AND id > :id)
+     * Con un índice sobre las columnas del orden, el coste de una página no
+     * depende de lo profunda que sea.
+     */
+
+    public static Specification<Customer> afterCursor(CustomerCursor cursor) {
+        return (root, query, cb) -> {
+            // Primera página => no hay posición previa
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+
+            Predicate idAfter = cb.greaterThan(root.get("id"), cursor.getId());
+            if (cursor.getOrder() == CustomerCursor.Order.ID) {
+                return idAfter;
+            }
+
+            // Comparación de tupla (lastName, id) expandida, portable entre BBDD
+            return cb.or(
+                    cb.greaterThan(root.get("lastName"), cursor.getLastName()),
+                    cb.and(cb.equal(root.get("lastName"), cursor.getLastName()), idAfter)
+            );
+        };
+    }
+
+    /**
+     * Devuelve una Specification que filtra Customer cuyo id está en la colección.
+     * Lo usa la búsqueda indexada para que la BBDD ordene un conjunto ya acotado.
+     */
+
+    public static Specification<Customer> idIn(Collection<Integer> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Orden determinista asociado a cada modo de cursor.
+     * El id siempre cierra el orden para que no haya empates.
+     */
+
+    public static Sort keysetSort(CustomerCursor.Order order) {
+        return order == CustomerCursor.Order.LAST_NAME
+                ? Sort.by("lastName", "id")
+                : Sort.by("id");
+    }
 }
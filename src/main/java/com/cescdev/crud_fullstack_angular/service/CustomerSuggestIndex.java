@@ -0,0 +1,195 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.repository.CustomerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocompletado en memoria para CustomerService.suggest.
+ *
+ * Mantiene un {@link PrefixIndex} sobre firstName, lastName y email:
+ *   - Se construye al arrancar la aplicación, leyendo la tabla por bloques.
+ *   - Se actualiza con cada {@link CustomerChangedEvent}.
+ *   - Mientras no está listo, el servicio responde con una consulta a la BBDD.
+ *
+ * Como en CustomerSearchIndex, los eventos son sólo los de esta instancia: cada
+ * customers.suggest.reconcile-interval (por defecto 5m) se reconstruye desde la
+ * tabla para recoger lo escrito en otras instancias (0: nunca).
+ *
+ * Se registra salvo con customers.suggest.engine=database.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.suggest.engine", havingValue = "index", matchIfMissing = true)
+public class CustomerSuggestIndex implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerSuggestIndex.class);
+
+    // Filas leídas por consulta al construir el índice
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final CustomerRepository customerRepository;
+    private final Duration reconcileInterval;
+    private final ScheduledExecutorService reconcile = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("customer-suggest-reconcile").daemon().factory());
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Se sustituye entero en cada reconstrucción (con el lock de escritura)
+    private PrefixIndex index = new PrefixIndex();
+    // Eventos llegados durante una reconstrucción en curso (null si no hay ninguna)
+    private List<CustomerChangedEvent> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public CustomerSuggestIndex(
+            CustomerRepository customerRepository,
+            @Value("${customers.suggest.reconcile-interval:5m}") Duration reconcileInterval
+    ) {
+        this.customerRepository = customerRepository;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Hasta limit customers con algún campo que empieza por prefix.
+     */
+    public List<CustomerOutputDto> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carga inicial y, desde ahí, reconstrucción periódica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        rebuild();
+        ready = true;
+        lock.readLock().lock();
+        try {
+            log.info("Índice de autocompletado construido: {} customers, {} KB, en {} ms",
+                    index.size(), index.memoryBytes() / 1024, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (reconcileInterval.isPositive()) {
+            reconcile.scheduleWithFixedDelay(this::reconcile, reconcileInterval.toMillis(),
+                    reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Igual que CustomerSearchIndex.rebuild(): índice nuevo por id con keyset y
+     * carga masiva (beginBulkLoad / endBulkLoad) sin bloquear las sugerencias,
+     * más los eventos llegados mientras tanto, y se pone en lugar del actual.
+     */
+    void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        PrefixIndex fresh = new PrefixIndex();
+        try {
+            fresh.beginBulkLoad();
+            CustomerCursor cursor = null;
+            List<Customer> batch;
+            do {
+                batch = customerRepository.findBy(CustomerSpecifications.afterCursor(cursor), q -> q
+                        .sortBy(Sort.by("id"))
+                        .limit(LOAD_BATCH_SIZE)
+                        .all());
+                batch.forEach(c -> put(fresh, c));
+                if (!batch.isEmpty()) {
+                    cursor = CustomerCursor.after(CustomerCursor.Order.ID, null, batch.get(batch.size() - 1).getId());
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            fresh.endBulkLoad();
+        } catch (RuntimeException e) {
+            // Se queda el índice actual
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach(event -> apply(fresh, event));
+            changedDuringRebuild = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(index, event);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        reconcile.shutdownNow();
+    }
+
+    private void reconcile() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Se reintenta en el siguiente intervalo; mientras, sigue el índice anterior
+            log.warn("No se pudo reconstruir el índice de autocompletado", e);
+        }
+    }
+
+    private static void apply(PrefixIndex target, CustomerChangedEvent event) {
+        if (event.type() == CustomerChangedEvent.Type.DELETED) {
+            target.remove(event.id());
+        } else {
+            put(target, event.customer());
+        }
+    }
+
+    private static void put(PrefixIndex target, Customer c) {
+        target.put(c.getId(), c.getFirstName(), c.getLastName(), c.getEmail());
+    }
+}
@@ -0,0 +1,63 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * "Versión" de la tabla customers vista desde esta instancia: cambia con
+ * cada {@link CustomerChangedEvent}. Sirve de ETag para los listados, de
+ * modo que un sondeo sin cambios se responde con 304 sin consultar la BBDD.
+ *
+ * Incluye un identificador aleatorio de la instancia: dos instancias (o la
+ * misma tras reiniciar) nunca comparten token, así que un cliente que cambia
+ * de instancia recibe un 200 completo en vez de un 304 incorrecto.
+ *
+ * Limitación: el contador sólo ve las escrituras que pasan por esta instancia.
+ * Con varias instancias, un cliente que sondea siempre la misma no se entera de
+ * lo escrito en las demás. Por eso el token incluye además un tramo de tiempo de
+ * customers.list-etag.max-stale (por defecto 5s): al cambiar de tramo cambia el
+ * token y el siguiente sondeo vuelve a leer de la BBDD. Un listado puede quedarse
+ * así hasta max-stale por detrás de escrituras hechas en otra instancia (o
+ * directamente en la BBDD); las de esta instancia se ven en el siguiente sondeo.
+ */
+@Component
+public class CustomerTableVersion {
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong changes = new AtomicLong();
+    private final long maxStaleMillis;
+    private final LongSupplier currentTimeMillis;
+
+    @Autowired
+    public CustomerTableVersion(@Value("${customers.list-etag.max-stale:5s}") Duration maxStale) {
+        this(maxStale, System::currentTimeMillis);
+    }
+
+    CustomerTableVersion(Duration maxStale, LongSupplier currentTimeMillis) {
+        this.maxStaleMillis = Math.max(1, maxStale.toMillis());
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Identificador de esta instancia (distinto en cada arranque).
+     */
+    public String instanceId() {
+        return instanceId;
+    }
+
+    public String current() {
+        return instanceId + "-" + changes.get() + "-" + currentTimeMillis.getAsLong() / maxStaleMillis;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        changes.incrementAndGet();
+    }
+}
@@ -0,0 +1,342 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.BatchItemResult;
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.WriteStatus;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.ResourceNotFoundException;
+import com.cescdev.crud_fullstack_angular.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Escritura diferida (write-behind) de altas y modificaciones para ráfagas de
+ * POST/PUT que no caben en una transacción por petición.
+ *
+ *   - submitCreate/submitUpdate encolan la escritura (ya validada por el
+ *     controlador) y devuelven un trackingId al momento.
+ *   - Un único hilo vacía la cola en lotes de customers.write-behind.batch-size,
+ *     esperando hasta customers.write-behind.linger a que se llene cada lote, y los
+ *     escribe con CustomerBatchWriter (una transacción y un executeBatch() por bloque).
+ *   - Varias modificaciones del mismo ID en un lote se funden en una (gana la
+ *     última) y todas reciben el resultado de esa escritura.
+ *   - Dentro de un lote las altas se escriben antes que las modificaciones.
+ *   - El email repetido, el ID inexistente, etc. se reportan por elemento en
+ *     status(trackingId), igual que en /batch.
+ *   - Contrapresión: con la cola llena (customers.write-behind.queue-capacity)
+ *     se rechaza con ServiceUnavailableException (503 + Retry-After).
+ *   - Al parar la aplicación deja de aceptar escrituras y vacía la cola antes de
+ *     que se cierre el DataSource (como mucho customers.write-behind.drain-timeout).
+ *     Lo que no llegue a escribirse en ese plazo queda FAILED, nunca PENDING.
+ *
+ * Los resultados se conservan customers.write-behind.retention tras escribirse
+ * (como mucho customers.write-behind.max-tracked); después status() da 404.
+ * Publica en Micrometer customers.write-behind.queue (escrituras en cola) y
+ * customers.write-behind.rejected (rechazadas por cola llena o parada).
+ * Sólo existe con customers.write-behind.enabled=true.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customers.write-behind.enabled", havingValue = "true")
+public class CustomerWriteBehind implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerWriteBehind.class);
+
+    // Cada cuánto comprueba el hilo si hay que parar cuando la cola está vacía
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final CustomerBatchWriter batchWriter;
+    private final BlockingQueue<PendingWrite> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Duration retryAfter;
+    private final Duration drainTimeout;
+    private final long retentionNanos;
+    private final int maxTracked;
+
+    // Escrituras aceptadas y aún no escritas
+    private final Map<String, WriteStatus> pending = new ConcurrentHashMap<>();
+    // Resultados en orden de escritura: el primero es el más antiguo
+    private final LinkedHashMap<String, Completed> completed = new LinkedHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile boolean running;
+    // submit() comprueba running y encola con el de lectura; stop() lo cambia con el de
+    // escritura: ninguna escritura puede entrar en la cola después de que el hilo la vacíe
+    private final ReadWriteLock accepting = new ReentrantReadWriteLock();
+    private Thread worker;
+
+    public CustomerWriteBehind(
+            CustomerBatchWriter batchWriter,
+            @Value("${customers.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${customers.write-behind.batch-size:500}") int batchSize,
+            @Value("${customers.write-behind.linger:20ms}") Duration linger,
+            @Value("${customers.write-behind.retry-after:1s}") Duration retryAfter,
+            @Value("${customers.write-behind.drain-timeout:30s}") Duration drainTimeout,
+            @Value("${customers.write-behind.retention:10m}") Duration retention,
+            @Value("${customers.write-behind.max-tracked:100000}") int maxTracked,
+            MeterRegistry meterRegistry
+    ) {
+        this.batchWriter = batchWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.retryAfter = retryAfter;
+        this.drainTimeout = drainTimeout;
+        this.retentionNanos = retention.toNanos();
+        this.maxTracked = maxTracked;
+
+        Gauge.builder("customers.write-behind.queue", queue, BlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("customers.write-behind.rejected", rejected, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Encola un alta. El Customer no debe tener ID.
+     */
+    public WriteStatus submitCreate(Customer customer) {
+        return submit(new PendingWrite(newTrackingId(), Operation.CREATE, customer));
+    }
+
+    /**
+     * Encola el reemplazo completo del Customer con customer.getId().
+     */
+    public WriteStatus submitUpdate(Customer customer) {
+        return submit(new PendingWrite(newTrackingId(), Operation.UPDATE, customer));
+    }
+
+    /**
+     * Estado de una escritura aceptada; 404 si no existe o ya se descartó.
+     */
+    public WriteStatus status(String trackingId) {
+        WriteStatus status = pending.get(trackingId);
+        if (status != null) {
+            return status;
+        }
+        synchronized (completed) {
+            expire(System.nanoTime());
+            Completed done = completed.get(trackingId);
+            if (done != null) {
+                return done.status();
+            }
+        }
+        throw new ResourceNotFoundException("Escritura con trackingId " + trackingId + " no se encuentra");
+    }
+
+    private WriteStatus submit(PendingWrite write) {
+        accepting.readLock().lock();
+        try {
+            if (!running) {
+                rejected.incrementAndGet();
+                throw new ServiceUnavailableException("La aplicación se está parando; reintenta más tarde", retryAfter);
+            }
+            WriteStatus status = WriteStatus.pending(write.trackingId(), write.customer().getId());
+            // Antes de encolar: el hilo podría escribirla y completarla antes de registrarla
+            pending.put(write.trackingId(), status);
+            if (!queue.offer(write)) {
+                pending.remove(write.trackingId());
+                rejected.incrementAndGet();
+                throw new ServiceUnavailableException("Demasiadas escrituras pendientes; reintenta más tarde", retryAfter);
+            }
+            return status;
+        } finally {
+            accepting.readLock().unlock();
+        }
+    }
+
+    // ----------- HILO DE ESCRITURA -----------
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        // Tras stop() sigue hasta vaciar la cola
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() agotó drain-timeout: el lote a medio llenar no se escribe
+                fail(batch, "La aplicación se paró antes de escribirla");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Fallo al escribir un lote diferido de {} customers", batch.size(), e);
+                fail(batch, "Error al escribir: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Completa el lote con lo que haya en la cola, esperando como mucho linger
+     * (nada si la aplicación se está parando: sólo queda vaciar la cola).
+     */
+    private void fill(List<PendingWrite> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long left = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || left <= 0 || !running) {
+                return;
+            }
+            // En tramos cortos para enterarse a tiempo de stop()
+            PendingWrite next = queue.poll(Math.min(left, TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS)),
+                    TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        List<PendingWrite> creates = new ArrayList<>();
+        // Modificaciones agrupadas por ID, en orden de llegada del primero
+        Map<Integer, List<PendingWrite>> updates = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            if (write.operation() == Operation.CREATE) {
+                creates.add(write);
+            } else {
+                updates.computeIfAbsent(write.customer().getId(), id -> new ArrayList<>()).add(write);
+            }
+        }
+
+        if (!creates.isEmpty()) {
+            BatchResult result = batchWriter.insertAll(creates.stream().map(PendingWrite::customer).toList());
+            for (int i = 0; i < creates.size(); i++) {
+                String trackingId = creates.get(i).trackingId();
+                complete(trackingId, WriteStatus.of(trackingId, result.getItems().get(i)));
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            List<List<PendingWrite>> groups = new ArrayList<>(updates.values());
+            BatchResult result = batchWriter.updateAll(groups.stream().map(group -> group.getLast().customer()).toList());
+            for (int i = 0; i < groups.size(); i++) {
+                BatchItemResult item = result.getItems().get(i);
+                for (PendingWrite write : groups.get(i)) {
+                    complete(write.trackingId(), WriteStatus.of(write.trackingId(), item));
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca FAILED las escrituras de writes que siguen pendientes: en un lote que
+     * falla, las altas pueden haberse completado ya (CREATED) antes de fallar las
+     * modificaciones.
+     */
+    private void fail(List<PendingWrite> writes, String message) {
+        writes.stream()
+                .filter(write -> pending.containsKey(write.trackingId()))
+                .forEach(write -> complete(write.trackingId(), new WriteStatus(write.trackingId(),
+                        WriteStatus.Status.FAILED, write.customer().getId(), message)));
+    }
+
+    private void complete(String trackingId, WriteStatus status) {
+        long now = System.nanoTime();
+        synchronized (completed) {
+            completed.put(trackingId, new Completed(status, now));
+            expire(now);
+        }
+        pending.remove(trackingId);
+    }
+
+    // Llamar con el lock de completed
+    private void expire(long now) {
+        Iterator<Completed> it = completed.values().iterator();
+        while (it.hasNext()) {
+            Completed oldest = it.next();
+            if (completed.size() <= maxTracked && now - oldest.completedAt() < retentionNanos) {
+                return;
+            }
+            it.remove();
+        }
+    }
+
+    private static String newTrackingId() {
+        return UUID.randomUUID().toString();
+    }
+
+    // ----------- CICLO DE VIDA -----------
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().name("customer-write-behind").start(this::run);
+    }
+
+    /**
+     * Deja de aceptar escrituras y espera a que el hilo vacíe la cola. Si no
+     * termina en drain-timeout, lo interrumpe y marca FAILED lo que quede en ella.
+     */
+    @Override
+    public void stop() {
+        accepting.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            accepting.writeLock().unlock();
+        }
+        try {
+            if (!worker.join(drainTimeout)) {
+                log.warn("La cola de escrituras diferidas no se vació en {}: quedan {} sin escribir",
+                        drainTimeout, queue.size());
+                worker.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, "La aplicación se paró antes de escribirla");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Por debajo del servidor web (DEFAULT_PHASE - 4096): arranca antes de que
+     * lleguen peticiones y se para cuando ya no llegan, con el DataSource aún abierto.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private enum Operation { CREATE, UPDATE }
+
+    private record PendingWrite(String trackingId, Operation operation, Customer customer) {
+    }
+
+    private record Completed(WriteStatus status, long completedAt) {
+    }
+}
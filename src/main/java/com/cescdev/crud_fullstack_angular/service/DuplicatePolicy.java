@@ -0,0 +1,15 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+/**
+ * Qué hacer al importar un Customer cuyo email (columna unique) ya existe.
+ *   - SKIP:   se omite y se reporta; la importación sigue.
+ *   - UPSERT: se actualiza el Customer existente con los nuevos datos.
+ *   - FAIL:   la importación se detiene al terminar el bloque en el que
+ *             aparece el primer duplicado. Lo ya confirmado (bloques
+ *             anteriores y filas válidas de ese bloque) se mantiene.
+ */
+public enum DuplicatePolicy {
+    SKIP,
+    UPSERT,
+    FAIL
+}
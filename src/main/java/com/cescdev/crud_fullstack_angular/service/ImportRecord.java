@@ -0,0 +1,21 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+
+/**
+ * Registro leído de un fichero de importación.
+ *
+ * @param number   número de registro dentro del fichero (empezando en 1).
+ * @param customer datos leídos (null si el registro no se pudo interpretar).
+ * @param error    motivo por el que no se pudo interpretar (null si se pudo).
+ */
+public record ImportRecord(long number, Customer customer, String error) {
+
+    public static ImportRecord of(long number, Customer customer) {
+        return new ImportRecord(number, customer, null);
+    }
+
+    public static ImportRecord unreadable(long number, String error) {
+        return new ImportRecord(number, null, error);
+    }
+}
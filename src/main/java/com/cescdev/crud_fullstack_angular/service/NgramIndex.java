@@ -0,0 +1,193 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido de trigramas para búsqueda por subcadena.
+ *
+ * Cada documento (un id entero) se indexa por los trigramas de su texto
+ * normalizado como en {@link PrefixIndex}: minúsculas y sin acentos, igual que
+ * compara la colación de MySQL (utf8mb4_0900_ai_ci), así que "garcia" encuentra
+ * "García" y al revés. Para buscar una palabra de 3 o más caracteres se
+ * intersectan las listas de ids de sus trigramas (empezando por la más corta)
+ * y se confirma cada candidato con un contains() real, de modo que el resultado
+ * coincide con campo LIKE '%palabra%' en MySQL.
+ * Palabras de 1-2 caracteres no tienen trigramas: se resuelven recorriendo
+ * los documentos en memoria.
+ *
+ * Diferencia con el LIKE: aquí % y _ son caracteres normales ("50%" busca
+ * literalmente "50%"), mientras que en la consulta LIKE actúan de comodines.
+ *
+ * No es thread-safe; la sincronización es responsabilidad de quien lo usa.
+ */
+public class NgramIndex {
+
+    // Separa campos dentro del texto del documento; nunca aparece en una búsqueda
+    static final char FIELD_SEPARATOR = '\u0000';
+
+    static final int GRAM = 3;
+
+    private final Map<Integer, String> documents = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+
+    /**
+     * Indexa (o reindexa) un documento con los campos indicados.
+     */
+    public void put(int id, String... fields) {
+        remove(id);
+        String text = normalize(String.join(String.valueOf(FIELD_SEPARATOR), fields));
+        documents.put(id, text);
+        forEachGram(text, gram -> postings.computeIfAbsent(gram, k -> new IntList()).add(id));
+    }
+
+    /**
+     * Elimina un documento del índice (no hace nada si no existe).
+     */
+    public void remove(int id) {
+        String text = documents.remove(id);
+        if (text == null) {
+            return;
+        }
+        forEachGram(text, gram -> {
+            IntList list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        });
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Devuelve, ordenados de menor a mayor, los ids cuyo texto contiene la palabra.
+     */
+    public int[] search(String keyword) {
+        String needle = normalize(keyword);
+        if (needle.isEmpty()) {
+            return documents.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+        if (needle.length() < GRAM) {
+            return documents.entrySet().stream()
+                    .filter(e -> e.getValue().contains(needle))
+                    .mapToInt(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+        }
+
+        // Listas de los trigramas de la búsqueda, de la más corta a la más larga
+        List<IntList> lists = new ArrayList<>();
+        boolean[] missing = {false};
+        forEachGram(needle, gram -> {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                missing[0] = true;
+            } else {
+                lists.add(list);
+            }
+        });
+        if (missing[0]) {
+            return new int[0];
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] candidates = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+
+        // Los trigramas no garantizan el orden ni la contigüidad: verificamos
+        int matches = 0;
+        for (int i = 0; i < count; i++) {
+            int id = candidates[i];
+            if (documents.get(id).contains(needle)) {
+                candidates[matches++] = id;
+            }
+        }
+        return Arrays.copyOf(candidates, matches);
+    }
+
+    static String normalize(String s) {
+        if (s == null) {
+            return "";
+        }
+        StringBuilder folded = new StringBuilder(s.length());
+        s.codePoints().map(PrefixIndex::fold).forEach(folded::appendCodePoint);
+        return folded.toString();
+    }
+
+    /**
+     * Deja en candidates[0..n) sólo los ids presentes también en other.
+     */
+    private static int intersect(int[] candidates, int count, IntList other) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (Arrays.binarySearch(other.values, 0, other.size, candidates[i]) >= 0) {
+                candidates[kept++] = candidates[i];
+            }
+        }
+        return kept;
+    }
+
+    private static void forEachGram(String text, GramConsumer consumer) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            char a = text.charAt(i), b = text.charAt(i + 1), c = text.charAt(i + 2);
+            // Los trigramas que cruzan de un campo a otro no pueden formar parte de una búsqueda
+            if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+                continue;
+            }
+            consumer.accept(((long) a << 32) | ((long) b << 16) | c);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    /**
+     * Lista ordenada de ints sin boxing. Los ids nuevos suelen ser mayores
+     * que los existentes, así que add() es casi siempre un append.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size > 0 && values[size - 1] >= value) {
+                int pos = Arrays.binarySearch(values, 0, size, value);
+                if (pos >= 0) {
+                    return; // el trigrama se repite dentro del mismo documento
+                }
+                insertAt(-pos - 1, value);
+                return;
+            }
+            insertAt(size, value);
+        }
+
+        boolean remove(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        private void insertAt(int pos, int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice de prefijos compacto para el autocompletado.
+ *
+ * Cada customer se guarda una sola vez como registro en un único byte[]:
+ *   [id:4][len:2][firstName UTF-8][len:2][lastName UTF-8][len:2][email UTF-8]
+ * y aporta tres entradas (una por campo) a un int[] ordenado por el valor
+ * normalizado del campo: minúsculas y sin acentos, de modo que "garcia"
+ * encuentra "García". Cada entrada es (offset del registro << 2 | campo).
+ * Buscar un prefijo es una búsqueda binaria más un recorrido secuencial,
+ * sin crear Strings salvo los del resultado.
+ *
+ *   - Las altas y cambios van a un tramo pequeño ordenado (delta) que se
+ *     fusiona con el principal cuando se llena: búsqueda binaria de cada entrada
+ *     y desplazamientos con arraycopy, sin comparar todo el tramo principal.
+ *   - Un cambio o una baja no tocan las entradas viejas: quedan obsoletas (el id
+ *     ya no apunta a ese registro) y se saltan al buscar. Cuando son más de un
+ *     cuarto del índice, una fusión las purga y, si compensa, se compacta el byte[].
+ *   - Para la carga inicial, beginBulkLoad() / endBulkLoad() añaden sin ordenar
+ *     y ordenan una sola vez al final.
+ *
+ * No es thread-safe; la sincronización es responsabilidad de quien lo usa.
+ */
+public class PrefixIndex {
+
+    static final int FIRST_NAME = 0;
+    static final int LAST_NAME = 1;
+    static final int EMAIL = 2;
+    private static final int FIELDS = 3;
+
+    private static final int DELTA_CAPACITY = 4096;
+    // Los offsets se guardan desplazados 2 bits dentro de un int sin signo
+    private static final int MAX_ARENA = 1 << 30;
+
+    // Normalización de los primeros 0x250 caracteres (latinos): minúscula sin diacríticos
+    private static final char[] FOLD = new char[0x250];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = Character.toLowerCase(decomposed.charAt(0));
+        }
+    }
+
+    private byte[] arena = new byte[4096];
+    private int arenaSize;
+    private long liveBytes;
+
+    private int[] main = new int[0];
+    private int mainSize;
+    private int[] delta = new int[DELTA_CAPACITY];
+    private int deltaSize;
+    private int staleEntries;
+    private boolean bulkLoad;
+
+    // id -> offset del registro vigente
+    private final IntIntMap records = new IntIntMap();
+
+    /**
+     * Indexa (o reindexa) un customer.
+     */
+    public void put(int id, String firstName, String lastName, String email) {
+        forget(id);
+        int record = writeRecord(id, firstName, lastName, email);
+        records.put(id, record);
+        for (int field = 0; field < FIELDS; field++) {
+            int entry = record << 2 | field;
+            if (bulkLoad) {
+                appendToMain(entry);
+            } else {
+                insertIntoDelta(entry);
+            }
+        }
+        if (!bulkLoad && deltaSize + FIELDS > DELTA_CAPACITY) {
+            merge(staleEntries > mainSize >> 2);
+        }
+    }
+
+    /**
+     * Elimina un customer del índice (no hace nada si no existe).
+     */
+    public void remove(int id) {
+        forget(id);
+        if (!bulkLoad && staleEntries > (mainSize >> 2) + DELTA_CAPACITY) {
+            merge(true);
+        }
+    }
+
+    /**
+     * A partir de aquí put() sólo añade: el índice no se puede consultar
+     * hasta endBulkLoad().
+     */
+    public void beginBulkLoad() {
+        merge(false);
+        bulkLoad = true;
+    }
+
+    /**
+     * Descarta lo obsoleto y ordena lo añadido desde beginBulkLoad().
+     */
+    public void endBulkLoad() {
+        bulkLoad = false;
+        int live = 0;
+        for (int i = 0; i < mainSize; i++) {
+            if (isLive(main[i])) {
+                main[live++] = main[i];
+            }
+        }
+        mainSize = live;
+        staleEntries = 0;
+        sort(main, mainSize);
+        compactIfWasteful();
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Memoria ocupada por los arrays del índice, en bytes (aproximada).
+     */
+    public long memoryBytes() {
+        return arena.length + 4L * (main.length + delta.length) + records.memoryBytes();
+    }
+
+    /**
+     * Hasta limit customers con algún campo que empieza por prefix, en orden
+     * alfabético (normalizado) del campo que coincide; cada customer una vez.
+     */
+    public List<CustomerOutputDto> search(String prefix, int limit) {
+        if (bulkLoad) {
+            throw new IllegalStateException("Índice en carga");
+        }
+        int[] query = fold(prefix);
+        if (query.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        int[] fromMain = collect(main, mainSize, query, limit);
+        int[] fromDelta = collect(delta, deltaSize, query, limit);
+
+        List<CustomerOutputDto> result = new ArrayList<>(limit);
+        int[] ids = new int[limit];
+        int i = 0, j = 0;
+        while (result.size() < limit && (i < fromMain.length || j < fromDelta.length)) {
+            int entry = j == fromDelta.length
+                    || (i < fromMain.length && compare(fromMain[i], fromDelta[j]) <= 0)
+                    ? fromMain[i++] : fromDelta[j++];
+            int id = readInt(entry >>> 2);
+            if (!contains(ids, result.size(), id)) {
+                ids[result.size()] = id;
+                result.add(toDto(entry >>> 2));
+            }
+        }
+        return result;
+    }
+
+    // ----------- BÚSQUEDA -----------
+
+    /**
+     * Hasta limit entradas vigentes (de customers distintos) de entries[0..size)
+     * que empiezan por query, en orden.
+     */
+    private int[] collect(int[] entries, int size, int[] query, int limit) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparePrefix(entries[mid], query) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int[] found = new int[limit];
+        int[] ids = new int[limit];
+        int count = 0;
+        for (int i = low; i < size && count < limit && comparePrefix(entries[i], query) == 0; i++) {
+            int entry = entries[i];
+            int id = readInt(entry >>> 2);
+            if (isLive(entry) && !contains(ids, count, id)) {
+                ids[count] = id;
+                found[count++] = entry;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLive(int entry) {
+        int record = entry >>> 2;
+        return records.get(readInt(record)) == record;
+    }
+
+    // ----------- ESCRITURA -----------
+
+    private void forget(int id) {
+        int old = records.remove(id);
+        if (old >= 0) {
+            liveBytes -= recordLength(old);
+            staleEntries += FIELDS;
+        }
+    }
+
+    private int writeRecord(int id, String... fields) {
+        byte[][] encoded = new byte[FIELDS][];
+        int length = 4;
+        for (int i = 0; i < FIELDS; i++) {
+            byte[] bytes = fields[i] == null ? new byte[0] : fields[i].getBytes(StandardCharsets.UTF_8);
+            encoded[i] = bytes.length > 0xFFFF ? Arrays.copyOf(bytes, 0xFFFF) : bytes;
+            length += 2 + encoded[i].length;
+        }
+        ensureArena(length);
+
+        int record = arenaSize;
+        writeInt(record, id);
+        int pos = record + 4;
+        for (byte[] bytes : encoded) {
+            arena[pos] = (byte) (bytes.length >>> 8);
+            arena[pos + 1] = (byte) bytes.length;
+            System.arraycopy(bytes, 0, arena, pos + 2, bytes.length);
+            pos += 2 + bytes.length;
+        }
+        arenaSize = pos;
+        liveBytes += length;
+        return record;
+    }
+
+    private void ensureArena(int extra) {
+        if ((long) arenaSize + extra > MAX_ARENA) {
+            throw new IllegalStateException("Índice de prefijos lleno");
+        }
+        if (arenaSize + extra > arena.length) {
+            long grown = Math.max(arenaSize + extra, (long) arena.length + (arena.length >> 1));
+            arena = Arrays.copyOf(arena, (int) Math.min(grown, MAX_ARENA));
+        }
+    }
+
+    private void appendToMain(int entry) {
+        if (mainSize == main.length) {
+            main = Arrays.copyOf(main, Math.max(16, mainSize + (mainSize >> 1)));
+        }
+        main[mainSize++] = entry;
+    }
+
+    private void insertIntoDelta(int entry) {
+        int pos = upperBound(delta, deltaSize, entry);
+        System.arraycopy(delta, pos, delta, pos + 1, deltaSize - pos);
+        delta[pos] = entry;
+        deltaSize++;
+    }
+
+    /**
+     * Primera posición de entries[0..size) cuyo valor va después del de entry.
+     */
+    private int upperBound(int[] entries, int size, int entry) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(entries[mid], entry) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Fusiona delta con el tramo principal. Las entradas obsoletas de delta se
+     * descartan siempre; las del principal, sólo con purge (las recorre todas).
+     */
+    private void merge(boolean purge) {
+        int live = 0;
+        for (int j = 0; j < deltaSize; j++) {
+            if (isLive(delta[j])) {
+                delta[live++] = delta[j];
+            }
+        }
+        staleEntries -= deltaSize - live;
+        if (purge) {
+            int kept = 0;
+            for (int i = 0; i < mainSize; i++) {
+                if (isLive(main[i])) {
+                    main[kept++] = main[i];
+                }
+            }
+            mainSize = kept;
+            staleEntries = 0;
+        }
+        if (mainSize + live > main.length) {
+            main = Arrays.copyOf(main, Math.max(mainSize + live, mainSize + (mainSize >> 3)));
+        }
+
+        // Desde el final, in situ: cada entrada de delta queda tras las iguales
+        // del principal y el tramo que va detrás se desplaza de una vez
+        int end = mainSize;
+        for (int j = live - 1; j >= 0; j--) {
+            int pos = upperBound(main, end, delta[j]);
+            System.arraycopy(main, pos, main, pos + j + 1, end - pos);
+            main[pos + j] = delta[j];
+            end = pos;
+        }
+        mainSize += live;
+        deltaSize = 0;
+        if (purge) {
+            compactIfWasteful();
+        }
+    }
+
+    /**
+     * Si más de la mitad del byte[] son registros obsoletos, lo reescribe sólo
+     * con los vigentes. Se llama sin entradas obsoletas ni delta (tras purgar).
+     */
+    private void compactIfWasteful() {
+        if (arenaSize - liveBytes <= Math.max(liveBytes, 4096)) {
+            return;
+        }
+        byte[] old = arena;
+        byte[] compacted = new byte[(int) Math.max(liveBytes, 4096)];
+        int size = 0;
+        int[] keys = records.keys();
+        for (int id : keys) {
+            int record = records.get(id);
+            int length = recordLength(record);
+            System.arraycopy(old, record, compacted, size, length);
+            records.put(id, size);
+            size += length;
+        }
+        for (int i = 0; i < mainSize; i++) {
+            int entry = main[i];
+            int id = readInt(old, entry >>> 2);
+            main[i] = records.get(id) << 2 | (entry & 3);
+        }
+        arena = compacted;
+        arenaSize = size;
+    }
+
+    private int recordLength(int record) {
+        int pos = record + 4;
+        for (int field = 0; field < FIELDS; field++) {
+            pos += 2 + fieldLength(pos);
+        }
+        return pos - record;
+    }
+
+    // ----------- COMPARACIÓN -----------
+
+    /**
+     * Posición (de la longitud) del campo de la entrada dentro del registro.
+     */
+    private int fieldStart(int entry) {
+        int pos = (entry >>> 2) + 4;
+        for (int field = entry & 3; field > 0; field--) {
+            pos += 2 + fieldLength(pos);
+        }
+        return pos;
+    }
+
+    private int fieldLength(int pos) {
+        return (arena[pos] & 0xFF) << 8 | (arena[pos + 1] & 0xFF);
+    }
+
+    /**
+     * Orden de los valores normalizados de dos entradas.
+     */
+    private int compare(int a, int b) {
+        int pa = fieldStart(a), pb = fieldStart(b);
+        int ea = pa + 2 + fieldLength(pa), eb = pb + 2 + fieldLength(pb);
+        pa += 2;
+        pb += 2;
+        while (pa < ea && pb < eb) {
+            long ca = decode(arena, pa), cb = decode(arena, pb);
+            if ((ca >>> 3) != (cb >>> 3)) {
+                return Long.compare(ca >>> 3, cb >>> 3);
+            }
+            pa += (int) (ca & 7);
+            pb += (int) (cb & 7);
+        }
+        return Boolean.compare(pa < ea, pb < eb);
+    }
+
+    /**
+     * Negativo si el valor de la entrada va antes que query, 0 si empieza por
+     * query, positivo si va después.
+     */
+    private int comparePrefix(int entry, int[] query) {
+        int pos = fieldStart(entry);
+        int end = pos + 2 + fieldLength(pos);
+        pos += 2;
+        for (int q : query) {
+            if (pos >= end) {
+                return -1;
+            }
+            long c = decode(arena, pos);
+            if ((c >>> 3) != q) {
+                return Long.compare(c >>> 3, q);
+            }
+            pos += (int) (c & 7);
+        }
+        return 0;
+    }
+
+    /**
+     * Decodifica el carácter UTF-8 en pos: (código normalizado << 3 | bytes que ocupa).
+     */
+    private static long decode(byte[] bytes, int pos) {
+        int b = bytes[pos] & 0xFF;
+        int cp, length;
+        if (b < 0x80) {
+            cp = b;
+            length = 1;
+        } else if (b < 0xE0) {
+            cp = (b & 0x1F) << 6 | (bytes[pos + 1] & 0x3F);
+            length = 2;
+        } else if (b < 0xF0) {
+            cp = (b & 0x0F) << 12 | (bytes[pos + 1] & 0x3F) << 6 | (bytes[pos + 2] & 0x3F);
+            length = 3;
+        } else {
+            cp = (b & 0x07) << 18 | (bytes[pos + 1] & 0x3F) << 12 | (bytes[pos + 2] & 0x3F) << 6
+                    | (bytes[pos + 3] & 0x3F);
+            length = 4;
+        }
+        return (long) fold(cp) << 3 | length;
+    }
+
+    static int fold(int cp) {
+        return cp < FOLD.length ? FOLD[cp] : Character.toLowerCase(cp);
+    }
+
+    static int[] fold(String s) {
+        return s == null ? new int[0] : s.strip().codePoints().map(PrefixIndex::fold).toArray();
+    }
+
+    /**
+     * Merge sort de entries[0..size) por valor normalizado (estable).
+     */
+    private void sort(int[] entries, int size) {
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int from = 0; from < size - width; from += width << 1) {
+                int mid = from + width, to = Math.min(from + (width << 1), size);
+                if (compare(entries[mid - 1], entries[mid]) <= 0) {
+                    continue; // ya en orden
+                }
+                System.arraycopy(entries, from, buffer, from, to - from);
+                int i = from, j = mid, k = from;
+                while (i < mid && j < to) {
+                    entries[k++] = compare(buffer[i], buffer[j]) <= 0 ? buffer[i++] : buffer[j++];
+                }
+                while (i < mid) {
+                    entries[k++] = buffer[i++];
+                }
+                while (j < to) {
+                    entries[k++] = buffer[j++];
+                }
+            }
+        }
+    }
+
+    // ----------- REGISTROS -----------
+
+    private CustomerOutputDto toDto(int record) {
+        int pos = record + 4;
+        String[] values = new String[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            int length = fieldLength(pos);
+            values[field] = new String(arena, pos + 2, length, StandardCharsets.UTF_8);
+            pos += 2 + length;
+        }
+        return new CustomerOutputDto(readInt(record), values[FIRST_NAME], values[LAST_NAME], values[EMAIL]);
+    }
+
+    private int readInt(int pos) {
+        return readInt(arena, pos);
+    }
+
+    private static int readInt(byte[] bytes, int pos) {
+        return (bytes[pos] & 0xFF) << 24 | (bytes[pos + 1] & 0xFF) << 16
+                | (bytes[pos + 2] & 0xFF) << 8 | (bytes[pos + 3] & 0xFF);
+    }
+
+    private void writeInt(int pos, int value) {
+        arena[pos] = (byte) (value >>> 24);
+        arena[pos + 1] = (byte) (value >>> 16);
+        arena[pos + 2] = (byte) (value >>> 8);
+        arena[pos + 3] = (byte) value;
+    }
+
+    /**
+     * Mapa int -> int (>= 0) con direccionamiento abierto, sin boxing.
+     * get() y remove() devuelven -1 si la clave no está.
+     */
+    private static final class IntIntMap {
+        private static final int FREE = Integer.MIN_VALUE;
+
+        private int[] keys = newKeys(16);
+        private int[] values = new int[16];
+        private int size;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == FREE) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(int key, int value) {
+            if (key == FREE) {
+                throw new IllegalArgumentException("id no válido: " + key);
+            }
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != FREE && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == FREE) {
+                keys[i] = key;
+                size++;
+            }
+            values[i] = value;
+        }
+
+        int remove(int key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == FREE) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+            int removed = values[i];
+            // Borrado con desplazamiento hacia atrás: sin marcas de borrado
+            for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    keys[i] = keys[j];
+                    values[i] = values[j];
+                    i = j;
+                }
+            }
+            keys[i] = FREE;
+            size--;
+            return removed;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] keys() {
+            int[] result = new int[size];
+            int n = 0;
+            for (int key : keys) {
+                if (key != FREE) {
+                    result[n++] = key;
+                }
+            }
+            return result;
+        }
+
+        long memoryBytes() {
+            return 8L * keys.length;
+        }
+
+        private void resize(int capacity) {
+            int[] oldKeys = keys, oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, FREE);
+            return keys;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
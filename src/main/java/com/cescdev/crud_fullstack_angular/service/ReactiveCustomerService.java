@@ -0,0 +1,27 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Contraparte no bloqueante de {@link CustomerService} (perfil "reactive"):
+ * mismas operaciones y mismos errores, devueltos como Mono/Flux.
+ */
+public interface ReactiveCustomerService {
+    Mono<Customer> save(Customer customer);
+    Mono<Customer> findById(Integer id);
+    Mono<Void> deleteById(Integer id);
+    Mono<Customer> updateById(Integer id, Customer data, Long expectedVersion);
+    Mono<Customer> patch(Integer id, Customer changes, Long expectedVersion);
+    Mono<Slice<CustomerOutputDto>> findAll(Pageable pageable, CountMode countMode);
+    Mono<Slice<CustomerOutputDto>> search(String keyword, Pageable pageable, CountMode countMode);
+    Mono<CursorPage<CustomerOutputDto>> findAllAfter(CustomerCursor after, CustomerCursor.Order order, int size);
+    Mono<CursorPage<CustomerOutputDto>> searchAfter(String keyword, CustomerCursor after, CustomerCursor.Order order, int size);
+    Flux<CustomerOutputDto> export(String keyword);
+    String currentTableVersion();
+}
@@ -0,0 +1,252 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.PreconditionFailedException;
+import com.cescdev.crud_fullstack_angular.exception.ResourceNotFoundException;
+import com.cescdev.crud_fullstack_angular.repository.ReactiveCustomerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.keysetSort;
+
+/**
+ * Implementación no bloqueante sobre R2DBC (perfil "reactive").
+ *
+ * Reproduce la semántica de CustomerServiceImpl para que ambos perfiles
+ * respondan igual: 404/412 a partir de las filas afectadas, PATCH sólo de las
+ * columnas que cambian con control de versión, Slice con LIMIT size + 1,
+ * keyset por (id) o (lastName, id) y CustomerChangedEvent tras cada escritura.
+ * Diferencias: no usa CustomerCache ni el índice de trigramas (ambos bloquean),
+ * y el conteo "approx" es exacto.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    private final ReactiveCustomerRepository customerRepository;
+    // Publica CustomerChangedEvent tras cada escritura (ETag de listados, cachés)
+    private final ApplicationEventPublisher eventPublisher;
+    // Versión de la tabla para los ETag de los listados
+    private final CustomerTableVersion tableVersion;
+    // Filas por viaje al recorrer la tabla en export()
+    private final int exportFetchSize;
+    // UPDATE + lectura de la nueva versión en una sola transacción
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveCustomerServiceImpl(
+            ReactiveCustomerRepository customerRepository,
+            ApplicationEventPublisher eventPublisher,
+            CustomerTableVersion tableVersion,
+            @Value("${customers.export.fetch-size:1000}") int exportFetchSize,
+            ReactiveTransactionManager transactionManager
+    ) {
+        this.customerRepository = customerRepository;
+        this.eventPublisher = eventPublisher;
+        this.tableVersion = tableVersion;
+        this.exportFetchSize = exportFetchSize;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public Mono<Customer> save(Customer customer) {
+        return customerRepository.insert(customer)
+                .doOnNext(saved -> eventPublisher.publishEvent(CustomerChangedEvent.created(saved)));
+    }
+
+    @Override
+    public Mono<Customer> findById(Integer id) {
+        return customerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> notFound(id)));
+    }
+
+    /**
+     * DELETE directo: 0 filas afectadas => 404.
+     */
+
+    @Override
+    public Mono<Void> deleteById(Integer id) {
+        return customerRepository.deleteById(id)
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(notFound(id))
+                        : Mono.<Void>fromRunnable(() -> eventPublisher.publishEvent(CustomerChangedEvent.deleted(id))));
+    }
+
+    /**
+     * UPDATE directo: 0 filas afectadas => 404, o 412 si el id existe con otra versión.
+     * Sin expectedVersion, la nueva versión se lee en la misma transacción que el
+     * UPDATE (como en la variante JPA).
+     */
+
+    @Override
+    public Mono<Customer> updateById(Integer id, Customer data, Long expectedVersion) {
+        Mono<Long> version = customerRepository.update(id, data, expectedVersion)
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return Mono.<Long>empty();
+                    }
+                    return expectedVersion != null
+                            ? Mono.just(expectedVersion + 1)
+                            : customerRepository.findVersionById(id);
+                })
+                .as(transactionalOperator::transactional);
+        return version
+                .map(newVersion -> {
+                    Customer result = new Customer(id, data.getFirstName(), data.getLastName(), data.getEmail());
+                    result.setVersion(newVersion);
+                    eventPublisher.publishEvent(CustomerChangedEvent.updated(result));
+                    return result;
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    if (expectedVersion == null) {
+                        return Mono.error(notFound(id));
+                    }
+                    return customerRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                            ? new PreconditionFailedException("La versión del cliente " + id + " ya no es " + expectedVersion)
+                            : notFound(id)));
+                }));
+    }
+
+    /**
+     * Lee, compara la versión y actualiza sólo las columnas que cambian,
+     * condicionando el UPDATE a la versión leída (bloqueo optimista: si otro
+     * escribió entre medias, 409 como en la variante JPA).
+     */
+
+    @Override
+    public Mono<Customer> patch(Integer id, Customer changes, Long expectedVersion) {
+        return findById(id).flatMap(current -> {
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                return Mono.error(new PreconditionFailedException(
+                        "La versión del cliente " + id + " ya no es " + expectedVersion));
+            }
+            Map<String, Object> columns = new LinkedHashMap<>();
+            if (changes.getFirstName() != null && !changes.getFirstName().equals(current.getFirstName())) {
+                columns.put("first_name", changes.getFirstName());
+                current.setFirstName(changes.getFirstName());
+            }
+            if (changes.getLastName() != null && !changes.getLastName().equals(current.getLastName())) {
+                columns.put("last_name", changes.getLastName());
+                current.setLastName(changes.getLastName());
+            }
+            if (changes.getEmail() != null && !changes.getEmail().equals(current.getEmail())) {
+                columns.put("email", changes.getEmail());
+                current.setEmail(changes.getEmail());
+            }
+            if (columns.isEmpty()) {
+                return Mono.just(current);
+            }
+            return customerRepository.updateColumns(id, current.getVersion(), columns)
+                    .flatMap(updated -> {
+                        if (updated == 0) {
+                            return Mono.error(new ObjectOptimisticLockingFailureException(Customer.class, id));
+                        }
+                        current.setVersion(current.getVersion() + 1);
+                        eventPublisher.publishEvent(CustomerChangedEvent.updated(current));
+                        return Mono.just(current);
+                    });
+        });
+    }
+
+    @Override
+    public Mono<Slice<CustomerOutputDto>> findAll(Pageable pageable, CountMode countMode) {
+        return search(null, pageable, countMode);
+    }
+
+    /**
+     * EXACT (y APPROXIMATE): PageImpl con total, sin count(*) si la página lo deja deducir.
+     * NONE: SliceImpl a partir de LIMIT size + 1.
+     */
+
+    @Override
+    public Mono<Slice<CustomerOutputDto>> search(String keyword, Pageable pageable, CountMode countMode) {
+        if (pageable.isUnpaged()) {
+            return customerRepository.find(keyword, null, pageable.getSort(), 0, Integer.MAX_VALUE)
+                    .collectList()
+                    .map(content -> countMode == CountMode.NONE
+                            ? new SliceImpl<>(content, pageable, false)
+                            : new PageImpl<>(content, pageable, content.size()));
+        }
+
+        int size = pageable.getPageSize();
+        if (countMode == CountMode.NONE) {
+            return customerRepository.find(keyword, null, pageable.getSort(), pageable.getOffset(), size + 1)
+                    .collectList()
+                    .map(rows -> {
+                        boolean hasNext = rows.size() > size;
+                        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+                    });
+        }
+
+        return customerRepository.find(keyword, null, pageable.getSort(), pageable.getOffset(), size)
+                .collectList()
+                .flatMap(content -> {
+                    // Igual que PageableExecutionUtils: página incompleta => el total ya se conoce
+                    if (content.size() < size && (pageable.getOffset() == 0 || !content.isEmpty())) {
+                        return Mono.just(new PageImpl<>(content, pageable, pageable.getOffset() + content.size()));
+                    }
+                    return customerRepository.count(keyword).map(total -> new PageImpl<>(content, pageable, total));
+                });
+    }
+
+    @Override
+    public Mono<CursorPage<CustomerOutputDto>> findAllAfter(CustomerCursor after, CustomerCursor.Order order, int size) {
+        return searchAfter(null, after, order, size);
+    }
+
+    @Override
+    public Mono<CursorPage<CustomerOutputDto>> searchAfter(String keyword, CustomerCursor after,
+                                                           CustomerCursor.Order order, int size) {
+        // Si viene cursor, manda su orden: cambiarlo a mitad de recorrido no tendría sentido
+        CustomerCursor.Order effectiveOrder = after != null ? after.getOrder() : order;
+        Sort sort = keysetSort(effectiveOrder);
+
+        return customerRepository.find(keyword, after, sort, 0, size + 1)
+                .collectList()
+                .map(rows -> {
+                    if (rows.size() <= size) {
+                        return new CursorPage<>(rows, null);
+                    }
+                    // Descartamos la fila sobrante y generamos el cursor a partir de la última devuelta
+                    List<CustomerOutputDto> content = rows.subList(0, size);
+                    CustomerOutputDto last = content.get(size - 1);
+                    String next = CustomerCursor.after(effectiveOrder, last.lastName(), last.id()).encode();
+                    return new CursorPage<>(content, next);
+                });
+    }
+
+    /**
+     * Todos los clientes (filtrados por keyword) en orden de id, según los pida el suscriptor.
+     */
+
+    @Override
+    public Flux<CustomerOutputDto> export(String keyword) {
+        return customerRepository.streamAll(keyword, exportFetchSize);
+    }
+
+    @Override
+    public String currentTableVersion() {
+        return tableVersion.current();
+    }
+
+    private static ResourceNotFoundException notFound(Integer id) {
+        return new ResourceNotFoundException("Customer con id " + id + " no se encuentra");
+    }
+}
@@ -0,0 +1,79 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes con la misma clave ("single flight"):
+ *   - La primera (líder) ejecuta loader; las que llegan mientras tanto
+ *     (seguidoras) esperan y reciben su mismo resultado o su misma excepción.
+ *   - La clave se libera antes de entregar el resultado: una llamada que llega
+ *     después de terminar la consulta lanza otra, nunca reutiliza una vieja.
+ *   - forget() suelta una clave en vuelo para que las llamadas siguientes no
+ *     se unan a una consulta empezada antes de una escritura.
+ *
+ * El resultado es el mismo objeto para todas: sólo para valores que nadie modifica.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong followers = new AtomicLong();
+
+    V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            followers.incrementAndGet();
+            return await(existing);
+        }
+
+        leaders.incrementAndGet();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+
+    void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    void forgetAll() {
+        inFlight.clear();
+    }
+
+    long leaders() {
+        return leaders.get();
+    }
+
+    long followers() {
+        return followers.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            // Misma excepción que recibió el líder (p. ej. ResourceNotFoundException => 404)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Esquema inicial: el que generaba Hibernate a partir de Customer.
+-- En una base de datos que ya tenía la tabla no se ejecuta: Flyway la toma
+-- como versión 1 (spring.flyway.baseline-on-migrate) y sigue por V2.
+CREATE TABLE customers (
+    id INT NOT NULL AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
+
+-- Recorrido por cursor ordenado por (lastName, id)
+CREATE INDEX idx_customers_last_name_id ON customers (last_name, id);
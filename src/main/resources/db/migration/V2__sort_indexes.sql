@@ -0,0 +1,5 @@
+-- Índices de los órdenes admitidos en ?sort= (ver CustomerSort): cada uno sirve
+-- el orden completo con sus desempates, sin filesort, en ambas direcciones.
+-- id usa la clave primaria y email su índice único.
+CREATE INDEX idx_customers_last_name_first_name_id ON customers (last_name, first_name, id);
+CREATE INDEX idx_customers_first_name_last_name_id ON customers (first_name, last_name, id);
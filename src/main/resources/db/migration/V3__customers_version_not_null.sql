@@ -0,0 +1,5 @@
+-- Las filas anteriores a la columna version (@Version) la tienen a NULL, y con
+-- NULL ni "version = version + 1" avanza ni el ETag ni If-Match funcionan.
+-- En las bases de datos nuevas V1 ya la crea NOT NULL y esto no cambia nada.
+UPDATE customers SET version = 0 WHERE version IS NULL;
+ALTER TABLE customers MODIFY version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,35 @@
+package com.cescdev.crud_fullstack_angular;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.ErrorDetails;
+import com.cescdev.crud_fullstack_angular.exception.GlobalExceptionHandler;
+import com.cescdev.crud_fullstack_angular.service.CustomerSpecifications;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerRuntimeHintsTests {
+
+	@Test
+	void registersReflectionForEntityDtosSpecificationsAndExceptionHandler() throws Exception {
+		RuntimeHints hints = new RuntimeHints();
+		new CustomerRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+		assertTrue(RuntimeHintsPredicates.reflection().onType(Customer.class)
+				.withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onConstructor(
+				CustomerOutputDto.class.getConstructor(Integer.class, String.class, String.class, String.class))
+				.test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(CustomerInputDto.class, "getEmail").test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(ErrorDetails.class).test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onMethod(CustomerSpecifications.class, "startsWithInFields")
+				.test(hints));
+		assertTrue(RuntimeHintsPredicates.reflection().onType(GlobalExceptionHandler.class)
+				.withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS).test(hints));
+	}
+}
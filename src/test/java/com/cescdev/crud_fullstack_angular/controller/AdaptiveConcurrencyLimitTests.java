@@ -0,0 +1,79 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTests {
+
+	private static final long MS = 1_000_000;
+
+	@Test
+	void growsWhileLatencyHoldsAndShrinksWhenItRises() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100);
+		for (int i = 0; i < 50; i++) {
+			saturate(limit, 10 * MS);
+		}
+		int grown = limit.getLimit();
+		assertTrue(grown > 10, "límite tras latencia estable: " + grown);
+
+		for (int i = 0; i < 20; i++) {
+			saturate(limit, 100 * MS);
+		}
+		assertTrue(limit.getLimit() < grown / 2, "límite tras subir la latencia: " + limit.getLimit());
+	}
+
+	@Test
+	void mixedFastAndSlowResponsesDoNotCollapseTheLimit() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 100);
+		// Aciertos de caché de 20 µs entre consultas de 20 ms, sin cola: la latencia media no cambia
+		for (int i = 0; i < 200; i++) {
+			int acquired = 0;
+			while (limit.tryAcquire()) {
+				acquired++;
+			}
+			for (int k = 0; k < acquired; k++) {
+				limit.release(k % 2 == 0 ? MS / 50 : 20 * MS, false);
+			}
+		}
+		assertTrue(limit.getLimit() >= 20, "límite con latencias mezcladas: " + limit.getLimit());
+	}
+
+	@Test
+	void rejectsBeyondTheLimitAndBacksOffOnErrorsDownToTheMinimum() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 2, 100);
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertTrue(limit.tryAcquire());
+		assertFalse(limit.tryAcquire());
+
+		for (int i = 0; i < 3; i++) {
+			limit.release(MS, true);
+		}
+		assertEquals(2, limit.getLimit());
+		assertEquals(0, limit.getInFlight());
+	}
+
+	@Test
+	void doesNotGrowWhenMostlyIdle() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100);
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limit.tryAcquire());
+			limit.release(MS, false);
+		}
+		assertEquals(10, limit.getLimit());
+	}
+
+	/**
+	 * Ocupa todo el límite y libera cada petición con la latencia indicada.
+	 */
+	private static void saturate(AdaptiveConcurrencyLimit limit, long rttNanos) {
+		int acquired = 0;
+		while (limit.tryAcquire()) {
+			acquired++;
+		}
+		for (int i = 0; i < acquired; i++) {
+			limit.release(rttNanos, false);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.CrudFullstackAngularApplication;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sobrecarga de búsquedas (LIKE sobre toda la tabla) con y sin
+ * ConcurrencyLimitInterceptor. Cada hilo de JMH es un cliente que lanza
+ * búsquedas una tras otra; se compara la latencia de lo admitido con pocos
+ * clientes y con diez veces más:
+ *   -t 8 y -t 80 con -p limits=true,false
+ *
+ * Los clientes respetan Retry-After tras un 503, como el front; si reintentaran
+ * en el acto, con un solo núcleo la propia avalancha de 503 se come la CPU.
+ * JMH mide todas las llamadas; al final de cada prueba se imprime aparte la
+ * latencia sólo de las admitidas (200), cuántas se rechazaron y el límite final.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(1)
+public class ConcurrencyLimitBenchmark {
+
+    private static final int ROWS = 5_000;
+    private static final int MAX_SAMPLES = 2_000_000;
+
+    @Param({"true", "false"})
+    public boolean limits;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String searchUrl;
+
+    private final long[] admitted = new long[MAX_SAMPLES];
+    private final AtomicInteger admittedCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private volatile boolean measuring;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        context = new SpringApplicationBuilder(CrudFullstackAngularApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "customers.limits.enabled=" + limits,
+                        "customers.coalescing.enabled=false",
+                        "customers.l2cache.enabled=false")
+                .run();
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                + "/api/customers";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < ROWS; i++) {
+            batch.append(i == 0 ? "" : ",").append("{\"firstName\":\"Nombre").append(i)
+                    .append("\",\"lastName\":\"Apellido").append(i)
+                    .append("\",\"email\":\"cliente").append(i).append("@mail.com\"}");
+        }
+        client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(batch.append("]").toString()))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        searchUrl = baseUrl + "?name=pellido&page=0&size=50&count=exact";
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+        measuring = iteration.getType() == IterationType.MEASUREMENT;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        int n = Math.min(admittedCount.get(), MAX_SAMPLES);
+        long[] sorted = Arrays.copyOf(admitted, n);
+        Arrays.sort(sorted);
+        Gauge limit = context.getBean(MeterRegistry.class).find("customers.limits.limit")
+                .tag("endpoint", "findAll").gauge();
+        System.out.printf("%nlimits=%s límite=%s admitidas=%d rechazadas=%d p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                limits, limit == null ? "-" : (int) limit.value(), n, rejectedCount.get(),
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        context.close();
+    }
+
+    @Benchmark
+    public int search() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(searchUrl)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        int status = response.statusCode();
+        if (status == 503) {
+            long seconds = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+        }
+        if (measuring) {
+            if (status == 200) {
+                int i = admittedCount.getAndIncrement();
+                if (i < MAX_SAMPLES) {
+                    admitted[i] = System.nanoTime() - start;
+                }
+            } else {
+                rejectedCount.incrementAndGet();
+            }
+        }
+        return status;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+}
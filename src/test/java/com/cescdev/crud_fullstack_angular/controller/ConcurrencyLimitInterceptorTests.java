@@ -0,0 +1,82 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(
+			2, 1, 10, 0.5, Duration.ofSeconds(2), meterRegistry);
+
+	@Test
+	void rejectsFastOnceTheEndpointLimitIsReachedAndAdmitsAgainAfterRelease() {
+		MockHttpServletRequest first = request("GET");
+		assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), handler("findById")));
+		assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findById")));
+
+		ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+				() -> interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findById")));
+		assertEquals(Duration.ofSeconds(2), rejected.getRetryAfter());
+		assertEquals(1, meterRegistry.get("customers.limits.rejected").tag("endpoint", "findById").counter().count());
+
+		interceptor.afterCompletion(first, new MockHttpServletResponse(), handler("findById"), null);
+		assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findById")));
+	}
+
+	@Test
+	void shedsSearchesFirstWhenWritesAreBusy() {
+		assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findAll")));
+
+		// Una escritura en curso ya ocupa la mitad (priority-threshold) del límite de save
+		MockHttpServletRequest write = request("POST");
+		assertTrue(interceptor.preHandle(write, new MockHttpServletResponse(), handler("save")));
+		assertThrows(ServiceUnavailableException.class,
+				() -> interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findAll")));
+		MockHttpServletRequest lookup = request("GET");
+		assertTrue(interceptor.preHandle(lookup, new MockHttpServletResponse(), handler("findById")));
+
+		interceptor.afterCompletion(write, new MockHttpServletResponse(), handler("save"), null);
+		interceptor.afterCompletion(lookup, new MockHttpServletResponse(), handler("findById"), null);
+		assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findAll")));
+	}
+
+	@Test
+	void searchesHaveTheirOwnLimitApartFromPlainListings() {
+		MockHttpServletRequest search = request("GET");
+		search.setParameter("name", "garcía");
+		assertTrue(interceptor.preHandle(search, new MockHttpServletResponse(), handler("findAll")));
+		MockHttpServletRequest secondSearch = request("GET");
+		secondSearch.setParameter("name", "ana");
+		assertTrue(interceptor.preHandle(secondSearch, new MockHttpServletResponse(), handler("findAll")));
+
+		// Las búsquedas llenan su límite, no el del listado
+		assertTrue(interceptor.preHandle(request("GET"), new MockHttpServletResponse(), handler("findAll")));
+		assertEquals(2, meterRegistry.get("customers.limits.in-flight").tag("endpoint", "findAll-search")
+				.gauge().value());
+		assertEquals(1, meterRegistry.get("customers.limits.in-flight").tag("endpoint", "findAll")
+				.gauge().value());
+	}
+
+	private static MockHttpServletRequest request(String method) {
+		return new MockHttpServletRequest(method, "/api/customers");
+	}
+
+	private static HandlerMethod handler(String name) {
+		return Arrays.stream(CustomerController.class.getMethods())
+				.filter(m -> m.getName().equals(name))
+				.findFirst()
+				.map(m -> new HandlerMethod(new Object(), m))
+				.orElseThrow();
+	}
+}
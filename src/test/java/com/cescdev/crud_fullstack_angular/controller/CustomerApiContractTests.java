@@ -0,0 +1,350 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contrato HTTP de /api/customers, común a las dos variantes (MVC/JPA y
+ * WebFlux/R2DBC). Cada subclase arranca la aplicación con su perfil sobre un
+ * puerto real y ejecuta exactamente las mismas peticiones y comprobaciones.
+ *
+ * Los tests no comparten datos: cada uno usa un token propio en nombres y
+ * emails y filtra los listados por él.
+ */
+abstract class CustomerApiContractTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@LocalServerPort
+	private int port;
+
+	private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void createReadAndConditionalGet() {
+		String token = token();
+		var created = client.post().uri("/api/customers")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Ana", "Zapata", token))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+				.expectBody(JsonNode.class).returnResult();
+		JsonNode body = created.getResponseBody();
+		int id = body.get("id").asInt();
+		assertTrue(created.getResponseHeaders().getLocation().getPath().endsWith("/api/customers/" + id));
+		assertEquals(Map.of("id", id, "firstName", "Ana", "lastName", "Zapata", "email", "ana@" + token + ".com"),
+				objectMapper.convertValue(body, Map.class));
+
+		client.get().uri("/api/customers/{id}", id).exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+				.expectBody().jsonPath("$.lastName").isEqualTo("Zapata");
+
+		client.get().uri("/api/customers/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\"").exchange()
+				.expectStatus().isNotModified();
+
+		client.get().uri("/api/customers/{id}", Integer.MAX_VALUE).exchange()
+				.expectStatus().isNotFound()
+				.expectBody().jsonPath("$.errorCode").isEqualTo("NOT_FOUND");
+	}
+
+	@Test
+	void updatePatchAndDeleteFollowVersions() {
+		String token = token();
+		int id = create("Luis", "García", token);
+
+		client.put().uri("/api/customers/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Luis", "Gómez", token))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+				.expectBody().jsonPath("$.lastName").isEqualTo("Gómez");
+
+		client.put().uri("/api/customers/{id}", id).header(HttpHeaders.IF_MATCH, "\"0\"")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Luis", "Pérez", token))
+				.exchange()
+				.expectStatus().isEqualTo(412)
+				.expectBody().jsonPath("$.errorCode").isEqualTo("PRECONDITION_FAILED");
+
+		client.patch().uri("/api/customers/{id}", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("firstName", "Luisa"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+				.expectBody()
+				.jsonPath("$.firstName").isEqualTo("Luisa")
+				.jsonPath("$.lastName").isEqualTo("Gómez");
+
+		// Sin If-Match también se devuelve (y se publica) la nueva versión
+		client.put().uri("/api/customers/{id}", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Luisa", "Pérez", token))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+		client.get().uri("/api/customers/{id}", id).exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+
+		client.put().uri("/api/customers/{id}", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(Map.of("firstName", "", "lastName", "X", "email", "no-es-email"))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody().jsonPath("$.errorCode").isEqualTo("VALIDATION_FAILED");
+
+		client.delete().uri("/api/customers/{id}", id).exchange().expectStatus().isNoContent();
+		client.delete().uri("/api/customers/{id}", id).exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.errorCode").isEqualTo("NOT_FOUND")
+				.jsonPath("$.path").isEqualTo("uri=/api/customers/" + id);
+		client.put().uri("/api/customers/{id}", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Luis", "Gómez", token))
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void listsPagesSlicesAndConditionalGet() {
+		String token = token();
+		for (String lastName : List.of("Vidal", "Bosch", "García", "Zapata", "García")) {
+			create(lastName.toLowerCase() + UUID.randomUUID().toString().substring(0, 4), lastName, token);
+		}
+
+		var page = client.get().uri("/api/customers?name={t}&size=2&page=1&sort=lastName,desc&sort=id", token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(JsonNode.class).returnResult();
+		JsonNode pageBody = page.getResponseBody();
+		assertEquals(5, pageBody.get("totalElements").asInt());
+		assertEquals(3, pageBody.get("totalPages").asInt());
+		assertEquals(List.of("García", "García"), lastNames(pageBody));
+
+		JsonNode slice = client.get().uri("/api/customers?name={t}&size=4&count=none&sort=id", token)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(JsonNode.class).returnResult().getResponseBody();
+		assertNull(slice.get("totalElements"));
+		assertFalse(slice.get("last").asBoolean());
+		assertEquals(4, slice.get("numberOfElements").asInt());
+
+		String listTag = page.getResponseHeaders().getETag();
+		client.get().uri("/api/customers?name={t}", token).header(HttpHeaders.IF_NONE_MATCH, listTag).exchange()
+				.expectStatus().isNotModified();
+
+		client.get().uri("/api/customers?count=mucho").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody().jsonPath("$.errorCode").isEqualTo("BAD_REQUEST");
+		client.get().uri("/api/customers?sort=version").exchange()
+				.expectStatus().isBadRequest()
+				.expectBody().jsonPath("$.errorCode").isEqualTo("BAD_REQUEST");
+	}
+
+	@Test
+	void listsNegotiateBinaryFormatsAndCompress() throws Exception {
+		String token = token();
+		for (int i = 0; i < 25; i++) {
+			create("cliente" + i, "Apellido" + i, token);
+		}
+		String uri = "/api/customers?name=" + token + "&size=25&sort=id";
+
+		var json = client.get().uri(uri).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+				.expectBody(byte[].class).returnResult();
+		JsonNode expected = objectMapper.readTree(json.getResponseBody());
+		assertEquals(25, expected.get("content").size());
+		assertNull(expected.get("pageable"));
+		assertTrue(json.getResponseHeaders().getETag().startsWith("W/"));
+		assertTrue(json.getResponseHeaders().getVary().stream().anyMatch(HttpHeaders.ACCEPT::equalsIgnoreCase));
+
+		byte[] cbor = client.get().uri(uri).accept(MediaType.APPLICATION_CBOR).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR)
+				.expectBody(byte[].class).returnResult().getResponseBody();
+		assertEquals(expected, new CBORMapper().readTree(cbor));
+
+		byte[] smile = client.get().uri(uri).accept(SMILE).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(SMILE)
+				.expectBody(byte[].class).returnResult().getResponseBody();
+		assertEquals(expected, new SmileMapper().readTree(smile));
+		assertTrue(smile.length < json.getResponseBody().length);
+
+		// Con el JDK: el cliente de WebTestClient descomprime y quita Content-Encoding
+		HttpResponse<byte[]> gzip = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create("http://localhost:" + port + uri))
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip").build(),
+				HttpResponse.BodyHandlers.ofByteArray());
+		assertEquals(200, gzip.statusCode());
+		assertEquals("gzip", gzip.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+		assertEquals(expected, objectMapper.readTree(new GZIPInputStream(new ByteArrayInputStream(gzip.body()))));
+		assertTrue(gzip.body().length < json.getResponseBody().length);
+	}
+
+	@Test
+	void cursorPagesWalkByLastName() {
+		String token = token();
+		for (String lastName : List.of("Vidal", "Bosch", "García", "Zapata", "García")) {
+			create(lastName.toLowerCase() + UUID.randomUUID().toString().substring(0, 4), lastName, token);
+		}
+
+		List<String> seen = new ArrayList<>();
+		String after = "";
+		do {
+			JsonNode page = client.get()
+					.uri("/api/customers?after={a}&name={t}&orderBy=lastName&size=2", after, token)
+					.exchange()
+					.expectStatus().isOk()
+					.expectBody(JsonNode.class).returnResult().getResponseBody();
+			seen.addAll(lastNames(page));
+			after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+		} while (after != null);
+
+		assertEquals(List.of("Bosch", "García", "García", "Vidal", "Zapata"), seen);
+
+		client.get().uri("/api/customers?after=no-es-un-cursor").exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void exportStreamsNdjsonAndCsv() {
+		String token = token();
+		int first = create("Ana", "Zapata", token);
+		int second = create("Pere", "Bosch, \"el Gran\"", token);
+
+		String ndjson = client.get().uri("/api/customers/export?format=ndjson&name={t}", token).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith("application/x-ndjson")
+				.expectHeader().valueEquals(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"customers.ndjson\"")
+				.expectBody(String.class).returnResult().getResponseBody();
+		assertEquals(List.of(first, second), ndjson.lines()
+				.map(line -> readTree(line).get("id").asInt())
+				.toList());
+
+		String csv = client.get().uri("/api/customers/export?format=csv&name={t}", token).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith("text/csv")
+				.expectBody(String.class).returnResult().getResponseBody();
+		assertEquals("id,firstName,lastName,email\r\n"
+				+ first + ",Ana,Zapata,ana@" + token + ".com\r\n"
+				+ second + ",Pere,\"Bosch, \"\"el Gran\"\"\",pere@" + token + ".com\r\n", csv);
+	}
+
+	@Test
+	void changesFeedReplaysWritesAndLongPolls() {
+		JsonNode current = changes("/api/customers/changes");
+		String epoch = current.get("epoch").asText();
+		long bookmark = current.get("lastSeq").asLong();
+		String token = token();
+		int id = create("Ana", "Zapata", token);
+		client.put().uri("/api/customers/{id}", id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Ana", "Vidal", token))
+				.exchange()
+				.expectStatus().isOk();
+		client.delete().uri("/api/customers/{id}", id).exchange().expectStatus().isNoContent();
+
+		JsonNode feed = changes("/api/customers/changes?epoch=" + epoch + "&since=" + bookmark);
+		List<String> types = new ArrayList<>();
+		feed.get("changes").forEach(change -> {
+			assertEquals(id, change.get("id").asInt());
+			types.add(change.get("type").asText());
+		});
+		assertEquals(List.of("CREATED", "UPDATED", "DELETED"), types);
+		assertEquals("Vidal", feed.get("changes").get(1).get("customer").get("lastName").asText());
+		assertTrue(feed.get("changes").get(2).get("customer").isNull());
+		long lastSeq = feed.get("lastSeq").asLong();
+		assertEquals(bookmark + 3, lastSeq);
+		assertEquals(epoch, feed.get("epoch").asText());
+
+		// Long-poll: la petición queda esperando hasta el siguiente cambio
+		CompletableFuture.runAsync(() -> create("Luis", "Bosch", token),
+				CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+		JsonNode next = changes("/api/customers/changes?epoch=" + epoch + "&since=" + lastSeq + "&wait=10");
+		assertEquals("Bosch", next.get("changes").get(0).get("customer").get("lastName").asText());
+
+		client.get().uri("/api/customers/changes?epoch={e}&since={s}", epoch, lastSeq + 1000).exchange()
+				.expectStatus().isEqualTo(410)
+				.expectBody().jsonPath("$.errorCode").isEqualTo("GONE");
+		// Una secuencia válida aquí, pero de otra instancia (o de antes de reiniciar)
+		client.get().uri("/api/customers/changes?epoch={e}&since={s}", "otra", lastSeq).exchange()
+				.expectStatus().isEqualTo(410)
+				.expectBody().jsonPath("$.errorCode").isEqualTo("GONE");
+		client.get().uri("/api/customers/changes?since={s}", lastSeq).exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	// ----------- AUXILIARES -----------
+
+	private int create(String firstName, String lastName, String token) {
+		JsonNode body = client.post().uri("/api/customers")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer(firstName, lastName, token))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(JsonNode.class).returnResult().getResponseBody();
+		return body.get("id").asInt();
+	}
+
+	private JsonNode changes(String uri) {
+		return client.get().uri(uri).exchange()
+				.expectStatus().isOk()
+				.expectBody(JsonNode.class).returnResult().getResponseBody();
+	}
+
+	private static Map<String, String> customer(String firstName, String lastName, String token) {
+		return Map.of("firstName", firstName, "lastName", lastName,
+				"email", firstName.toLowerCase() + "@" + token + ".com");
+	}
+
+	private static String token() {
+		return "t" + UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+	}
+
+	private static List<String> lastNames(JsonNode page) {
+		List<String> lastNames = new ArrayList<>();
+		page.get("content").forEach(c -> lastNames.add(c.get("lastName").asText()));
+		return lastNames;
+	}
+
+	private JsonNode readTree(String json) {
+		try {
+			return objectMapper.readTree(json);
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+}
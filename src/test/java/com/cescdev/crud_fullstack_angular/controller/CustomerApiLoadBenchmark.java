@@ -0,0 +1,103 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.CrudFullstackAngularApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga concurrente de lectura sobre /api/customers por HTTP real, con la
+ * variante MVC + JPA y la reactiva WebFlux + R2DBC (las dos sobre Tomcat, ver
+ * ReactiveWebConfig): a igualdad de servidor, la diferencia es el modelo de hilos.
+ *
+ * Cada hilo de JMH es un cliente que lanza peticiones una tras otra, así que
+ * @Threads es el número de peticiones simultáneas (se puede cambiar con -t).
+ * Ojo: la base de datos es H2 en memoria y r2dbc-h2 no es realmente no bloqueante
+ * (cada consulta termina en el hilo que la lanza), así que los números contra
+ * MySQL pueden diferir bastante. Con 64 clientes o más, el pool de R2DBC acaba
+ * entregando las conexiones pendientes desde un único hilo y la variante reactiva
+ * deja de avanzar: es un efecto del driver de H2, no de la API. Los dos pools
+ * (Hikari y R2DBC) tienen 20 conexiones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class CustomerApiLoadBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    @Param({"mvc", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(CrudFullstackAngularApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        // Sin descarte de carga (sólo en MVC): se compara el rendimiento bruto
+                        "customers.limits.enabled=false");
+        if ("reactive".equals(stack)) {
+            builder.profiles("reactive").properties(
+                    "spring.r2dbc.url=r2dbc:h2:mem:///reactive-load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                    "spring.sql.init.mode=always",
+                    "spring.sql.init.schema-locations=classpath:reactive-schema.sql");
+        }
+        context = builder.run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/customers";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // La carga pasa por la propia API para que las dos variantes partan de lo mismo
+        for (int i = 0; i < ROWS; i++) {
+            String body = "{\"firstName\":\"Nombre" + i + "\",\"lastName\":\"Apellido" + i
+                    + "\",\"email\":\"cliente" + i + "@mail.com\"}";
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Alta de prueba rechazada: " + response.statusCode());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getById() throws IOException, InterruptedException {
+        int id = 1 + ThreadLocalRandom.current().nextInt(ROWS);
+        return get(baseUrl + "/" + id);
+    }
+
+    @Benchmark
+    public int listFirstPage() throws IOException, InterruptedException {
+        return get(baseUrl + "?page=0&size=20&count=none");
+    }
+
+    @Benchmark
+    public int searchPage() throws IOException, InterruptedException {
+        return get(baseUrl + "?name=Apellido1&page=0&size=20&count=none");
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
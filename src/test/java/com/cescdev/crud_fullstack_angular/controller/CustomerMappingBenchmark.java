@@ -0,0 +1,119 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerInputDto;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapper;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapperImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de la capa web sin base de datos:
+ *   - toDto / toEntity fila a fila: MapStruct (CustomerMapper) frente a la
+ *     versión escrita a mano que tenía el controlador (handWritten*).
+ *   - Conversión de páginas grandes: toDtoPage frente a Page.map(toDto).
+ *   - Serialización Jackson de la página de CustomerOutputDto resultante.
+ * Cada operación procesa una página completa de pageSize elementos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMappingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int pageSize;
+
+    private CustomerMapper mapper;
+    private ObjectMapper objectMapper;
+    private List<CustomerInputDto> inputs;
+    private Page<Customer> page;
+    private Page<CustomerOutputDto> dtoPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        mapper = new CustomerMapperImpl();
+
+        List<Customer> customers = new ArrayList<>(pageSize);
+        inputs = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            customers.add(new Customer(i + 1, "Nombre" + i, "Apellido" + i, "cliente" + i + "@mail.com"));
+            CustomerInputDto dto = new CustomerInputDto();
+            dto.setFirstName("Nombre" + i);
+            dto.setLastName("Apellido" + i);
+            dto.setEmail("cliente" + i + "@mail.com");
+            inputs.add(dto);
+        }
+        page = new PageImpl<>(customers, PageRequest.of(0, pageSize), 1_000_000);
+        dtoPage = mapper.toDtoPage(page);
+    }
+
+    @Benchmark
+    public void toDto(Blackhole bh) {
+        for (Customer c : page.getContent()) {
+            bh.consume(mapper.toDto(c));
+        }
+    }
+
+    @Benchmark
+    public void handWrittenToDto(Blackhole bh) {
+        for (Customer c : page.getContent()) {
+            bh.consume(handWrittenToDto(c));
+        }
+    }
+
+    @Benchmark
+    public void toEntity(Blackhole bh) {
+        for (CustomerInputDto dto : inputs) {
+            bh.consume(mapper.toEntity(dto));
+        }
+    }
+
+    @Benchmark
+    public void handWrittenToEntity(Blackhole bh) {
+        for (CustomerInputDto dto : inputs) {
+            bh.consume(handWrittenToEntity(dto));
+        }
+    }
+
+    @Benchmark
+    public Page<CustomerOutputDto> pageMap() {
+        return mapper.toDtoPage(page);
+    }
+
+    @Benchmark
+    public Page<CustomerOutputDto> handWrittenPageMap() {
+        return page.map(CustomerMappingBenchmark::handWrittenToDto);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(dtoPage);
+    }
+
+    // Referencia: el mapeo manual que hacía CustomerController antes de MapStruct
+
+    private static CustomerOutputDto handWrittenToDto(Customer c) {
+        return new CustomerOutputDto(c.getId(), c.getFirstName(), c.getLastName(), c.getEmail());
+    }
+
+    private static Customer handWrittenToEntity(CustomerInputDto dto) {
+        Customer c = new Customer();
+        c.setFirstName(dto.getFirstName());
+        c.setLastName(dto.getLastName());
+        c.setEmail(dto.getEmail());
+        return c;
+    }
+}
@@ -0,0 +1,10 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Contrato de /api/customers contra la variante por defecto (Spring MVC + JPA).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class MvcCustomerApiTests extends CustomerApiContractTests {
+}
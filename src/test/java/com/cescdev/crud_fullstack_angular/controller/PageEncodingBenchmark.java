@@ -0,0 +1,84 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.PageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tamaño y coste de serializar una página de GET /api/customers según el formato:
+ *   - page-impl: el Page de Spring Data tal cual, en JSON (lo que se enviaba antes).
+ *   - json:      PageResponse en JSON.
+ *   - cbor:      PageResponse en CBOR (Accept: application/cbor).
+ *   - smile:     PageResponse en Smile (Accept: application/x-jackson-smile).
+ * Con gzip=true se mide además la compresión que hace Tomcat (server.compression).
+ * Los ObjectMapper son los que crea Spring para cada formato.
+ *
+ * Los tamaños en bytes no son una medida de tiempo: se imprimen al preparar
+ * cada combinación (líneas "bytes:").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageEncodingBenchmark {
+
+    @Param({"100", "1000"})
+    public int pageSize;
+
+    @Param({"page-impl", "json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper objectMapper;
+    private Object body;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<CustomerOutputDto> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new CustomerOutputDto(i + 1, "Nombre" + i, "Apellido" + i, "cliente" + i + "@mail.com"));
+        }
+        Page<CustomerOutputDto> page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1_000_000);
+
+        objectMapper = switch (format) {
+            case "page-impl", "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        body = format.equals("page-impl") ? page : PageResponse.of(page);
+
+        byte[] encoded = encode();
+        System.out.printf(Locale.ROOT, "%nbytes: pageSize=%d format=%s gzip=%s -> %d (%.1f por cliente)%n",
+                pageSize, format, gzip, encoded.length, (double) encoded.length / pageSize);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(body);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            objectMapper.writeValue(gzipOut, body);
+        }
+        return out.toByteArray();
+    }
+}
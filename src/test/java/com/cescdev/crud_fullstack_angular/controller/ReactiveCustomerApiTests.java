@@ -0,0 +1,21 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Contrato de /api/customers contra la variante reactiva (WebFlux + R2DBC),
+ * sobre H2 en modo MySQL con el esquema de reactive-schema.sql.
+ *
+ * El tipo de aplicación web se repite aquí porque @SpringBootTest lo decide
+ * antes de cargar application-reactive.properties.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.main.web-application-type=reactive",
+		"spring.r2dbc.url=r2dbc:h2:mem:///reactive-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.sql.init.mode=always",
+		"spring.sql.init.schema-locations=classpath:reactive-schema.sql"
+})
+@ActiveProfiles("reactive")
+class ReactiveCustomerApiTests extends CustomerApiContractTests {
+}
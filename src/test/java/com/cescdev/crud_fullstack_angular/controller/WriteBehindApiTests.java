@@ -0,0 +1,91 @@
+package com.cescdev.crud_fullstack_angular.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * POST/PUT con Prefer: respond-async y la escritura diferida activada (sólo variante MVC).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"customers.write-behind.enabled=true", "customers.write-behind.linger=200ms"})
+class WriteBehindApiTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void acceptsWritesAndReportsEachResultByTrackingId() throws Exception {
+		String token = UUID.randomUUID().toString().substring(0, 8);
+		int existing = client.post().uri("/api/customers")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(customer("Ana", "Zapata", "ana@" + token + ".com"))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(JsonNode.class).returnResult().getResponseBody().get("id").asInt();
+
+		String created = submit("POST", "/api/customers", customer("Luis", "García", "luis@" + token + ".com"));
+		String duplicate = submit("POST", "/api/customers", customer("Otra", "Ana", "ana@" + token + ".com"));
+		String firstUpdate = submit("PUT", "/api/customers/" + existing, customer("Ana", "Vidal", "ana@" + token + ".com"));
+		String lastUpdate = submit("PUT", "/api/customers/" + existing, customer("Ana", "Bosch", "ana@" + token + ".com"));
+		String missing = submit("PUT", "/api/customers/" + Integer.MAX_VALUE, customer("Nadie", "Nadie", "x@" + token + ".com"));
+
+		JsonNode createdStatus = awaitResult(created);
+		assertEquals("CREATED", createdStatus.get("status").asText());
+		client.get().uri("/api/customers/{id}", createdStatus.get("id").asInt()).exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.lastName").isEqualTo("García");
+
+		assertEquals("DUPLICATE", awaitResult(duplicate).get("status").asText());
+		assertEquals("NOT_FOUND", awaitResult(missing).get("status").asText());
+		// Las dos modificaciones del mismo ID se funden: gana la última
+		assertEquals("UPDATED", awaitResult(firstUpdate).get("status").asText());
+		assertEquals("UPDATED", awaitResult(lastUpdate).get("status").asText());
+		client.get().uri("/api/customers/{id}", existing).exchange()
+				.expectStatus().isOk()
+				.expectBody().jsonPath("$.lastName").isEqualTo("Bosch");
+
+		client.get().uri("/api/customers/writes/{trackingId}", "desconocido").exchange()
+				.expectStatus().isNotFound();
+	}
+
+	private String submit(String method, String uri, Map<String, String> body) {
+		var result = client.method(HttpMethod.valueOf(method)).uri(uri)
+				.contentType(MediaType.APPLICATION_JSON)
+				.header("Prefer", "respond-async")
+				.bodyValue(body)
+				.exchange()
+				.expectStatus().isAccepted()
+				.expectHeader().valueEquals("Preference-Applied", "respond-async")
+				.expectBody(JsonNode.class).returnResult();
+		String trackingId = result.getResponseBody().get("trackingId").asText();
+		assertTrue(result.getResponseHeaders().getLocation().getPath().endsWith("/api/customers/writes/" + trackingId));
+		return trackingId;
+	}
+
+	private JsonNode awaitResult(String trackingId) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			JsonNode status = client.get().uri("/api/customers/writes/{trackingId}", trackingId).exchange()
+					.expectStatus().isOk()
+					.expectBody(JsonNode.class).returnResult().getResponseBody();
+			if (!"PENDING".equals(status.get("status").asText())) {
+				return status;
+			}
+			Thread.sleep(50);
+		}
+		return fail("La escritura " + trackingId + " sigue pendiente");
+	}
+
+	private static Map<String, String> customer(String firstName, String lastName, String email) {
+		return Map.of("firstName", firstName, "lastName", lastName, "email", email);
+	}
+}
@@ -0,0 +1,98 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.service.CustomerSort;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.containsKeywordInFields;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Planes de las consultas de página con el orden de CustomerSort, sobre el
+ * esquema de las migraciones: se captura la SQL que genera Hibernate y se pasa
+ * por EXPLAIN. H2 marca con "index sorted" el ORDER BY que resuelve recorriendo
+ * un índice (el equivalente a que MySQL no haga filesort) e "index sorted: 1 of 2
+ * columns" cuando el índice sólo cubre una parte.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.cescdev.crud_fullstack_angular.repository.CustomerSortPlanTests$Statements")
+class CustomerSortPlanTests {
+
+	private static final String INDEX_SORTED = "/* index sorted */";
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void everyManagedSortIsServedByAnIndex() {
+		for (CustomerSort.Key key : CustomerSort.Key.values()) {
+			for (Sort.Direction direction : Sort.Direction.values()) {
+				Pageable requested = PageRequest.of(2, 20, Sort.by(direction, key.property()));
+				for (String keyword : new String[]{null, "garcía"}) {
+					String plan = explain(containsKeywordInFields(keyword), CustomerSort.managed(requested));
+					assertTrue(plan.contains(INDEX_SORTED), key + " " + direction + " " + keyword + ": " + plan);
+				}
+			}
+		}
+	}
+
+	@Test
+	void unmanagedSortsNeedAnExtraSort() {
+		// Direcciones mezcladas y campos sin índice: justo lo que CustomerSort reescribe o rechaza
+		String mixed = explain(null, PageRequest.of(2, 20, Sort.by(Sort.Order.asc("lastName"), Sort.Order.desc("id"))));
+		assertFalse(mixed.contains(INDEX_SORTED), mixed);
+		String version = explain(null, PageRequest.of(2, 20, Sort.by("version")));
+		assertFalse(version.contains(INDEX_SORTED), version);
+	}
+
+	/**
+	 * Ejecuta la página por el repositorio y devuelve el EXPLAIN de su SELECT.
+	 */
+	private String explain(Specification<Customer> spec, Pageable pageable) {
+		Statements.executed.clear();
+		customerRepository.findSlice(spec, pageable, CustomerOutputDto.class);
+		String sql = Statements.executed.stream()
+				.filter(s -> s.toLowerCase().contains("order by"))
+				.findFirst()
+				.orElseThrow(() -> new AssertionError("No se ejecutó ninguna SELECT con ORDER BY"));
+		int parameters = (int) sql.chars().filter(c -> c == '?').count();
+		return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+			// EXPLAIN necesita valores: 1 vale como OFFSET, LIMIT y patrón de LIKE
+			for (int i = 1; i <= parameters; i++) {
+				ps.setInt(i, 1);
+			}
+		}, rs -> {
+			rs.next();
+			return rs.getString(1);
+		});
+	}
+
+	/**
+	 * Guarda la SQL que prepara Hibernate (sólo la de este contexto de tests).
+	 */
+	public static class Statements implements StatementInspector {
+
+		static final List<String> executed = new ArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			executed.add(sql);
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.service.CustomerCache;
+import com.cescdev.crud_fullstack_angular.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lecturas a réplicas con dos H2 en memoria como réplicas (con 1 y 2 filas
+ * distintas de las del primario, para saber quién ha respondido) y una tercera
+ * URL sin servidor detrás.
+ */
+@SpringBootTest(properties = {
+		"customers.replicas.enabled=true",
+		"customers.replicas.urls=" + ReplicaRoutingTests.REPLICA_A + "," + ReplicaRoutingTests.REPLICA_B
+				+ ",jdbc:h2:tcp://localhost:1/caida",
+		"customers.replicas.connection-timeout=250ms",
+		"customers.replicas.sticky-window=300ms"
+})
+class ReplicaRoutingTests {
+
+	static final String REPLICA_A = "jdbc:h2:mem:replica-a;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+			+ ";INIT=RUNSCRIPT FROM 'classpath:reactive-schema.sql'";
+	static final String REPLICA_B = "jdbc:h2:mem:replica-b;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+			+ ";INIT=RUNSCRIPT FROM 'classpath:reactive-schema.sql'";
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private ReplicaPool replicaPool;
+
+	@Autowired
+	private CustomerCache customerCache;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		fill(REPLICA_A, 1);
+		fill(REPLICA_B, 2);
+		// Primero la réplica caída, para que la espera no consuma la ventana tras las escrituras
+		for (int i = 0; i < 100 && replicaPool.healthyReplicas().size() > 2; i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(List.of("replica-0", "replica-1"), replicaPool.healthyReplicas());
+		customerRepository.deleteAll();
+		for (int i = 0; i < 5; i++) {
+			customerService.save(new Customer(null, "Primario", "García", "primario" + i + "@mail.com"));
+		}
+	}
+
+	@Test
+	void readOnlyQueriesGoToHealthyReplicasExceptRightAfterAWrite() throws Exception {
+		// Justo después de escribir se lee del primario
+		assertEquals(5, customerRepository.count());
+
+		Thread.sleep(400);
+		Set<Long> counts = new HashSet<>();
+		for (int i = 0; i < 6; i++) {
+			counts.add(customerRepository.count());
+		}
+		// Las dos réplicas sanas y nunca la caída ni el primario
+		assertEquals(Set.of(1L, 2L), counts);
+
+		customerService.save(new Customer(null, "Otro", "García", "otro@mail.com"));
+		assertEquals(6, customerRepository.count());
+	}
+
+	@Test
+	void onlyTheWritingClientIsPinnedToThePrimary() throws Exception {
+		Thread.sleep(400);
+		customerService.save(new Customer(null, "Otro", "García", "otro@mail.com"));
+		assertEquals(6, customerRepository.count());
+		// Otro cliente (otro hilo, sin cookie) sigue en las réplicas
+		assertTrue(Set.of(1L, 2L).contains(CompletableFuture.supplyAsync(customerRepository::count).get()));
+		// ...salvo que traiga la cookie de la escritura
+		long until = System.currentTimeMillis() + 300;
+		assertEquals(6L, CompletableFuture.supplyAsync(() -> {
+			replicaPool.stickToPrimaryUntil(until);
+			try {
+				return customerRepository.count();
+			} finally {
+				replicaPool.releaseSticky();
+			}
+		}).get());
+	}
+
+	@Test
+	void cachedRowsAreDroppedWhenTheWindowCloses() throws Exception {
+		Integer id = customerRepository.findAll().get(0).getId();
+		customerService.findById(id);
+		assertNotNull(customerCache.cachedVersion(id));
+
+		Thread.sleep(400);
+		assertNull(customerCache.cachedVersion(id));
+	}
+
+	private static void fill(String url, int rows) throws Exception {
+		try (Connection connection = DriverManager.getConnection(url, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			statement.execute("DELETE FROM customers");
+			for (int i = 0; i < rows; i++) {
+				statement.execute("INSERT INTO customers (first_name, last_name, email, version)"
+						+ " VALUES ('Réplica', 'García', 'replica" + i + "@mail.com', 0)");
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.cescdev.crud_fullstack_angular.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migraciones sobre una base de datos anterior a Flyway: la tabla tal como la
+ * dejaba Hibernate, con filas de antes de la columna version (a NULL).
+ */
+class SchemaMigrationTests {
+
+	@Test
+	void existingDatabaseIsBaselinedAndGetsVersionsBackfilled() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE customers (id INT AUTO_INCREMENT PRIMARY KEY, version BIGINT,"
+				+ " first_name VARCHAR(50) NOT NULL, last_name VARCHAR(50) NOT NULL, email VARCHAR(255) NOT NULL UNIQUE)");
+		jdbc.update("INSERT INTO customers (first_name, last_name, email) VALUES ('Ana', 'Zapata', 'ana@mail.com')");
+
+		migrate(dataSource);
+
+		assertEquals(0L, jdbc.queryForObject("SELECT version FROM customers", Long.class));
+		jdbc.update("INSERT INTO customers (first_name, last_name, email) VALUES ('Luis', 'Gómez', 'luis@mail.com')");
+		assertEquals(0L, jdbc.queryForObject("SELECT version FROM customers WHERE email = 'luis@mail.com'", Long.class));
+		assertThrows(Exception.class, () -> jdbc.update("UPDATE customers SET version = NULL"));
+		assertEquals(4, jdbc.queryForObject("SELECT max(version) FROM flyway_schema_history", Integer.class));
+		// V1 no se ejecuta en una base de datos existente: el índice lo crea la versión 4
+		assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM information_schema.indexes"
+				+ " WHERE index_name = '" + LastNameIdIndexMigration.INDEX + "'", Integer.class));
+	}
+
+	@Test
+	void newDatabaseKeepsTheIndexCreatedByV1() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+
+		migrate(dataSource);
+
+		assertEquals(1, new JdbcTemplate(dataSource).queryForObject("SELECT count(*) FROM information_schema.indexes"
+				+ " WHERE index_name = '" + LastNameIdIndexMigration.INDEX + "'", Integer.class));
+	}
+
+	private static void migrate(DataSource dataSource) {
+		// Lo mismo que spring.flyway.* en application.properties, más la migración Java
+		Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1")
+				.javaMigrations(new LastNameIdIndexMigration()).load().migrate();
+	}
+}
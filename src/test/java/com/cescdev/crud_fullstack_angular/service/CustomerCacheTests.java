@@ -0,0 +1,48 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTests {
+
+	@Test
+	void revalidatesAgainstTheDatabaseVersionAfterRevalidateAfter() {
+		CustomerCache cache = new CustomerCache(10, Duration.ofMinutes(5), Duration.ZERO, new SimpleMeterRegistry());
+		AtomicLong dbVersion = new AtomicLong(0);
+		AtomicInteger loads = new AtomicInteger();
+		Function<Integer, Customer> loader = id -> {
+			loads.incrementAndGet();
+			Customer c = new Customer(id, "Ana", "Zapata", "ana@mail.com");
+			c.setVersion(dbVersion.get());
+			return c;
+		};
+
+		cache.get(1, loader, id -> dbVersion.get());
+		assertEquals(0L, cache.get(1, loader, id -> dbVersion.get()).getVersion());
+		assertEquals(1, loads.get());
+
+		// Escritura hecha en otra instancia: aquí no llega ningún evento
+		dbVersion.set(1);
+		assertNull(cache.cachedVersion(1));
+		assertEquals(1L, cache.get(1, loader, id -> dbVersion.get()).getVersion());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void servesTheCachedVersionWhileRecentlyChecked() {
+		CustomerCache cache = new CustomerCache(10, Duration.ofMinutes(5), Duration.ofMinutes(1), new SimpleMeterRegistry());
+		Customer ana = new Customer(1, "Ana", "Zapata", "ana@mail.com");
+		ana.setVersion(3L);
+
+		cache.get(1, id -> ana, id -> fail("recién cargada: no se revalida"));
+		assertEquals(3L, cache.cachedVersion(1));
+	}
+}
@@ -0,0 +1,59 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.ChangeFeed;
+import com.cescdev.crud_fullstack_angular.dto.CustomerChange;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.GoneException;
+import com.cescdev.crud_fullstack_angular.mapper.CustomerMapper;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerChangeLogTests {
+
+	private final CustomerChangeLog log = new CustomerChangeLog(3, Mappers.getMapper(CustomerMapper.class),
+			new CustomerTableVersion(Duration.ofSeconds(5)));
+
+	private final String epoch = log.current().epoch();
+
+	@Test
+	void keepsOnlyTheLastCapacityChanges() {
+		for (int id = 1; id <= 5; id++) {
+			log.onCustomerChanged(CustomerChangedEvent.created(new Customer(id, "Ana", "Zapata", "a@mail.com")));
+		}
+
+		ChangeFeed feed = log.read(epoch, 2, 10);
+		assertEquals(List.of(3L, 4L, 5L), feed.changes().stream().map(CustomerChange::seq).toList());
+		assertEquals(5, feed.lastSeq());
+		assertFalse(feed.hasMore());
+
+		ChangeFeed limited = log.read(epoch, 2, 2);
+		assertEquals(4, limited.lastSeq());
+		assertTrue(limited.hasMore());
+
+		assertThrows(GoneException.class, () -> log.read(epoch, 1, 10));
+		assertThrows(GoneException.class, () -> log.read(epoch, 6, 10));
+		// Misma secuencia, otro epoch: la de un arranque anterior no vale aquí
+		assertThrows(GoneException.class, () -> log.read("otra", 4, 10));
+		assertNotEquals(epoch, new CustomerChangeLog(3, Mappers.getMapper(CustomerMapper.class),
+				new CustomerTableVersion(Duration.ofSeconds(5))).current().epoch());
+	}
+
+	@Test
+	void awaitCompletesWithTheNextChangeOrEmptyOnTimeout() {
+		CompletableFuture<ChangeFeed> pending = log.await(epoch, 0, 10, Duration.ofSeconds(10));
+		assertFalse(pending.isDone());
+
+		log.onCustomerChanged(CustomerChangedEvent.deleted(7));
+		CustomerChange change = pending.join().changes().get(0);
+		assertEquals(CustomerChangedEvent.Type.DELETED, change.type());
+		assertNull(change.customer());
+
+		assertEquals(List.of(), log.await(epoch, 1, 10, Duration.ofMillis(50)).join().changes());
+	}
+}
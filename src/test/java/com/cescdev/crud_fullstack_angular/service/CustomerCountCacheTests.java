@@ -0,0 +1,89 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCountCacheTests {
+
+	private static final int CALLERS = 8;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void expiredCountIsRefreshedOnceWhileOthersGetTheOldValue() throws Exception {
+		AtomicInteger counts = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CustomerCountCache cache = new CustomerCountCache(key -> {
+			if (counts.incrementAndGet() > 1) {
+				started.countDown();
+				await(release);
+			}
+			return counts.get() * 10L;
+		}, Duration.ZERO, 10);
+		assertEquals(10, cache.approximateCount("ana"));
+
+		// Caducado: el primero recalcula y se queda esperando en el count(*)
+		Future<Long> refresh = executor.submit(() -> cache.approximateCount("ana"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		List<Future<Long>> others = new ArrayList<>();
+		for (int i = 1; i < CALLERS; i++) {
+			others.add(executor.submit(() -> cache.approximateCount("ana")));
+		}
+		for (Future<Long> other : others) {
+			assertEquals(10, other.get(5, TimeUnit.SECONDS));
+		}
+
+		release.countDown();
+		assertEquals(20, refresh.get(5, TimeUnit.SECONDS));
+		assertEquals(2, counts.get());
+	}
+
+	@Test
+	void firstCountIsSharedByConcurrentCallers() throws Exception {
+		AtomicInteger counts = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		CustomerCountCache cache = new CustomerCountCache(key -> {
+			counts.incrementAndGet();
+			await(release);
+			return 5L;
+		}, Duration.ofMinutes(1), 10);
+
+		List<Future<Long>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(() -> cache.approximateCount("")));
+		}
+		Thread.sleep(100);
+		release.countDown();
+		for (Future<Long> result : results) {
+			assertEquals(5, result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, counts.get());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
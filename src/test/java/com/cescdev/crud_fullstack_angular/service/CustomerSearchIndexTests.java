@@ -0,0 +1,92 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static com.cescdev.crud_fullstack_angular.service.CustomerSpecifications.containsKeywordInFields;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "customers.search.engine=index")
+class CustomerSearchIndexTests {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private CustomerSearchIndex searchIndex;
+
+	@BeforeEach
+	void setUp() {
+		customerRepository.findAll().forEach(c -> customerService.deleteById(c.getId()));
+		customerService.save(new Customer(null, "Ana", "Zapata", "ana@mail.com"));
+		customerService.save(new Customer(null, "Luis", "García", "luis@mail.com"));
+		customerService.save(new Customer(null, "Marta", "García", "marta@otro.es"));
+		customerService.save(new Customer(null, "Pere", "Bosch", "pere@mail.com"));
+	}
+
+	@Test
+	void indexedSearchReturnsSameResultsAsLike() {
+		assertTrue(searchIndex.isReady());
+		for (String keyword : List.of("a", "GAR", "mail.com", "rta", "nadie")) {
+			for (Pageable pageable : List.of(PageRequest.of(0, 2), PageRequest.of(0, 10, Sort.by("lastName", "id")))) {
+				Page<Customer> indexed = customerService.search(keyword, pageable);
+				Page<Customer> like = customerRepository.findAll(containsKeywordInFields(keyword), pageable);
+				assertEquals(like.getTotalElements(), indexed.getTotalElements(), keyword);
+				assertEquals(ids(like), ids(indexed), keyword);
+			}
+		}
+	}
+
+	@Test
+	void indexedSearchHonoursTheCountMode() {
+		Slice<Customer> none = customerService.search("mail.com", PageRequest.of(0, 1), CountMode.NONE);
+		assertFalse(none instanceof Page, "NONE no debe calcular total");
+		assertTrue(none.hasNext());
+		assertEquals(1, none.getNumberOfElements());
+
+		Slice<Customer> approximate = customerService.search("mail.com", PageRequest.of(0, 1, Sort.by("lastName")),
+				CountMode.APPROXIMATE);
+		assertEquals(3, ((Page<Customer>) approximate).getTotalElements());
+	}
+
+	@Test
+	void indexFollowsUpdatesAndDeletes() {
+		Customer luis = customerService.search("luis", PageRequest.of(0, 5)).getContent().get(0);
+		luis.setLastName("Vidal");
+		customerService.update(luis);
+		assertEquals(1, customerService.search("garcía", PageRequest.of(0, 5)).getTotalElements());
+		assertEquals(1, customerService.search("vidal", PageRequest.of(0, 5)).getTotalElements());
+
+		customerService.deleteById(luis.getId());
+		assertEquals(0, customerService.search("vidal", PageRequest.of(0, 5)).getTotalElements());
+	}
+
+	@Test
+	void rebuildPicksUpWritesThatDidNotGoThroughThisInstance() {
+		// Guardado directamente en la BBDD: ningún CustomerChangedEvent llega al índice
+		Customer other = customerRepository.save(new Customer(null, "Laura", "Ibáñez", "laura@mail.com"));
+		assertEquals(0, searchIndex.search("ibañez").length);
+
+		searchIndex.rebuild();
+		assertArrayEquals(new int[]{other.getId()}, searchIndex.search("ibañez"));
+		assertEquals(1, customerService.search("ibañez", PageRequest.of(0, 5)).getTotalElements());
+	}
+
+	private static List<Integer> ids(Page<Customer> page) {
+		return page.getContent().stream().map(Customer::getId).toList();
+	}
+}
@@ -0,0 +1,170 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.CrudFullstackAngularApplication;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.repository.CustomerBatchRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerServiceImpl de extremo a extremo contra H2 en modo MySQL,
+ * con tablas de 10k y 1M filas y los dos motores de búsqueda (like / index).
+ *
+ * Además mide lo que cuesta construir el Predicate de
+ * CustomerSpecifications.containsKeywordInFields con el CriteriaBuilder real.
+ *
+ * Los pares *ViaEntities / *Projected comparan la lectura de siempre
+ * (entidades + copia a DTO, como hacía el controlador) con la proyectada;
+ * la diferencia de memoria se ve con el profiler de JMH "-prof gc" (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CustomerServiceBenchmark {
+
+    private static final int SEED_CHUNK = 10_000;
+    private static final String[] LAST_NAMES = {"García", "Martínez", "López", "Sánchez", "Pérez", "Gómez", "Vidal", "Bosch"};
+
+    @Param({"10000", "1000000"})
+    public int rows;
+
+    @Param({"like", "index"})
+    public String searchEngine;
+
+    private ConfigurableApplicationContext context;
+    private CustomerService customerService;
+    private EntityManager entityManager;
+    private int minId;
+    private int maxId;
+    private final Pageable firstPage = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CrudFullstackAngularApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "customers.search.engine=" + searchEngine,
+                        "logging.level.root=WARN"
+                )
+                .run();
+        customerService = context.getBean(CustomerService.class);
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+
+        // Carga directa por JDBC batch: mucho más rápida que pasar por el servicio
+        CustomerBatchRepository batchRepository = context.getBean(CustomerBatchRepository.class);
+        minId = Integer.MAX_VALUE;
+        for (int from = 0; from < rows; from += SEED_CHUNK) {
+            List<Customer> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(from + SEED_CHUNK, rows); i++) {
+                chunk.add(new Customer(null, "Nombre" + i, LAST_NAMES[i % LAST_NAMES.length] + i, "cliente" + i + "@mail.com"));
+            }
+            batchRepository.insertAll(chunk);
+            minId = Math.min(minId, chunk.get(0).getId());
+            maxId = chunk.get(chunk.size() - 1).getId();
+        }
+        // La carga no publica eventos: reconstruimos el índice a partir de la tabla
+        context.getBeanProvider(CustomerSearchIndex.class).ifAvailable(CustomerSearchIndex::build);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Customer findByIdHot() {
+        return customerService.findById(minId + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Benchmark
+    public Customer findByIdRandom() {
+        return customerService.findById(ThreadLocalRandom.current().nextInt(minId, maxId + 1));
+    }
+
+    @Benchmark
+    public Page<Customer> findAllFirstPage() {
+        return customerService.findAll(firstPage);
+    }
+
+    @Benchmark
+    public Page<Customer> findAllDeepPage() {
+        return customerService.findAll(PageRequest.of(rows / 20 - 1, 20));
+    }
+
+    @Benchmark
+    public Object findAllAfterDeepCursor() {
+        CustomerCursor cursor = CustomerCursor.after(CustomerCursor.Order.ID, null, maxId - 20);
+        return customerService.findAllAfter(cursor, CustomerCursor.Order.ID, 20);
+    }
+
+    @Benchmark
+    public Page<Customer> searchSelective() {
+        return customerService.search("cliente4242@", firstPage);
+    }
+
+    @Benchmark
+    public Page<Customer> searchBroad() {
+        return customerService.search("garcía", firstPage);
+    }
+
+    @Benchmark
+    public Slice<CustomerOutputDto> listPageViaEntities() {
+        return customerService.findAll(firstPage, CountMode.EXACT).map(CustomerServiceBenchmark::toDto);
+    }
+
+    @Benchmark
+    public Slice<CustomerOutputDto> listPageProjected() {
+        return customerService.findAllProjected(firstPage, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public Slice<CustomerOutputDto> searchBroadViaEntities() {
+        return customerService.search("garcía", firstPage, CountMode.NONE).map(CustomerServiceBenchmark::toDto);
+    }
+
+    @Benchmark
+    public Slice<CustomerOutputDto> searchBroadProjected() {
+        return customerService.searchProjected("garcía", firstPage, CountMode.NONE);
+    }
+
+    @Benchmark
+    public Customer saveAndDelete() {
+        int n = ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+        Customer saved = customerService.save(new Customer(null, "Bench", "Mark", "bench" + n + "@mail.com"));
+        customerService.deleteById(saved.getId());
+        return saved;
+    }
+
+    @Benchmark
+    public Object buildSearchPredicate() {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Customer> query = cb.createQuery(Customer.class);
+        Root<Customer> root = query.from(Customer.class);
+        return CustomerSpecifications.containsKeywordInFields("garcía").toPredicate(root, query, cb);
+    }
+
+    private static CustomerOutputDto toDto(Customer c) {
+        return new CustomerOutputDto(c.getId(), c.getFirstName(), c.getLastName(), c.getEmail());
+    }
+}
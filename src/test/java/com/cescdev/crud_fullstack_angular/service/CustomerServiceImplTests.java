@@ -0,0 +1,349 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.BatchItemResult;
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.CursorPage;
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import com.cescdev.crud_fullstack_angular.dto.ImportResult;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import com.cescdev.crud_fullstack_angular.exception.PreconditionFailedException;
+import com.cescdev.crud_fullstack_angular.exception.ResourceNotFoundException;
+import com.cescdev.crud_fullstack_angular.repository.CustomerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CustomerServiceImplTests {
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private CustomerCache customerCache;
+
+	@Autowired
+	private CustomerSuggestIndex suggestIndex;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		customerRepository.deleteAll();
+		customerService.save(new Customer(null, "Ana", "Zapata", "ana@mail.com"));
+		customerService.save(new Customer(null, "Luis", "García", "luis@mail.com"));
+		customerService.save(new Customer(null, "Marta", "García", "marta@mail.com"));
+		customerService.save(new Customer(null, "Pere", "Bosch", "pere@mail.com"));
+		customerService.save(new Customer(null, "Laura", "Vidal", "laura@mail.com"));
+	}
+
+	@Test
+	void findAllAfterWalksEveryCustomerOnceById() {
+		List<Integer> ids = new ArrayList<>();
+		CustomerCursor cursor = null;
+		do {
+			CursorPage<Customer> page = customerService.findAllAfter(cursor, CustomerCursor.Order.ID, 2);
+			page.getContent().forEach(c -> ids.add(c.getId()));
+			cursor = page.getNextCursor() == null ? null : CustomerCursor.decode(page.getNextCursor());
+		} while (cursor != null);
+
+		assertEquals(5, ids.size());
+		assertEquals(ids.stream().sorted().toList(), ids);
+	}
+
+	@Test
+	void searchAfterKeepsLastNameOrderAcrossPages() {
+		CursorPage<Customer> first = customerService.searchAfter("a", null, CustomerCursor.Order.LAST_NAME, 3);
+		assertTrue(first.isHasNext());
+		assertEquals(List.of("Bosch", "García", "García"),
+				first.getContent().stream().map(Customer::getLastName).toList());
+
+		CursorPage<Customer> second = customerService.searchAfter(
+				"a", CustomerCursor.decode(first.getNextCursor()), CustomerCursor.Order.ID, 3);
+		assertFalse(second.isHasNext());
+		assertEquals(List.of("Vidal", "Zapata"),
+				second.getContent().stream().map(Customer::getLastName).toList());
+	}
+
+	@Test
+	void decodeRejectsTamperedCursor() {
+		assertThrows(BadRequestException.class, () -> CustomerCursor.decode("no-es-un-cursor"));
+	}
+
+	@Test
+	void searchWithoutCountReturnsSliceWithHasNext() {
+		Slice<Customer> slice = customerService.search("garcía", PageRequest.of(0, 1, Sort.by("id")), CountMode.NONE);
+		assertFalse(slice instanceof Page);
+		assertEquals(1, slice.getNumberOfElements());
+		assertTrue(slice.hasNext());
+
+		Slice<Customer> last = customerService.search("garcía", PageRequest.of(1, 1, Sort.by("id")), CountMode.NONE);
+		assertFalse(last.hasNext());
+	}
+
+	@Test
+	void findAllWithApproximateCountReturnsPageWithTotal() {
+		Slice<Customer> slice = customerService.findAll(PageRequest.of(0, 2), CountMode.APPROXIMATE);
+		assertInstanceOf(Page.class, slice);
+		assertEquals(5, ((Page<Customer>) slice).getTotalElements());
+	}
+
+	@Test
+	void projectedReadsMatchEntityReads() {
+		PageRequest byLastName = PageRequest.of(0, 3, Sort.by("lastName", "id"));
+		assertEquals(
+				customerService.search("a", byLastName, CountMode.EXACT).map(Customer::getEmail).getContent(),
+				customerService.searchProjected("a", byLastName, CountMode.EXACT).map(CustomerOutputDto::email).getContent());
+		assertEquals(5, ((Page<?>) customerService.findAllProjected(PageRequest.of(0, 2), CountMode.EXACT)).getTotalElements());
+
+		CursorPage<CustomerOutputDto> first = customerService.findAllAfterProjected(null, CustomerCursor.Order.LAST_NAME, 4);
+		CursorPage<CustomerOutputDto> second = customerService.findAllAfterProjected(
+				CustomerCursor.decode(first.getNextCursor()), CustomerCursor.Order.ID, 4);
+		assertEquals(List.of("Bosch", "García", "García", "Vidal", "Zapata"), Stream.concat(
+				first.getContent().stream(), second.getContent().stream()).map(CustomerOutputDto::lastName).toList());
+	}
+
+	@Test
+	void findByIdIsServedFromCacheUntilUpdated() {
+		Integer id = customerRepository.findAll().get(0).getId();
+		long hits = customerCache.getHits();
+
+		Customer first = customerService.findById(id);
+		first.setFirstName("Modificado sin guardar");
+		Customer second = customerService.findById(id);
+		assertEquals(hits + 1, customerCache.getHits());
+		assertNotEquals("Modificado sin guardar", second.getFirstName());
+
+		second.setFirstName("Nuevo");
+		customerService.update(second);
+		assertEquals("Nuevo", customerService.findById(id).getFirstName());
+	}
+
+	@Test
+	void findFreshByIdIgnoresTheSecondLevelCache() {
+		Integer id = customerRepository.findAll().get(0).getId();
+		customerRepository.findById(id);
+
+		// UPDATE directo, como el de otra instancia: ni eventos ni desalojo de la caché L2
+		jdbcTemplate.update("UPDATE customers SET last_name = 'Otra', version = version + 1 WHERE id = ?", id);
+
+		assertEquals("Otra", customerRepository.findFreshById(id).orElseThrow().getLastName());
+		assertEquals("Otra", customerRepository.findById(id).orElseThrow().getLastName());
+	}
+
+	@Test
+	void exportDoesNotFillTheSecondLevelCache() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		entityManagerFactory.getCache().evictAll();
+		long puts = statistics.getSecondLevelCachePutCount();
+
+		List<Customer> exported = new ArrayList<>();
+		customerService.export(null, exported::add);
+		assertEquals(5, exported.size());
+		assertEquals(puts, statistics.getSecondLevelCachePutCount());
+	}
+
+	@Test
+	void repeatedSearchesSkipTheDatabaseUntilAWrite() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		PageRequest firstPage = PageRequest.of(0, 2, Sort.by("lastName", "id"));
+		customerService.searchProjected("a", firstPage, CountMode.EXACT);
+
+		long statements = statistics.getPrepareStatementCount();
+		long hits = statistics.getQueryCacheHitCount();
+		Slice<CustomerOutputDto> cached = customerService.searchProjected("a", firstPage, CountMode.EXACT);
+		assertEquals(statements, statistics.getPrepareStatementCount());
+		assertEquals(hits + 2, statistics.getQueryCacheHitCount()); // página + count(*)
+		assertEquals(5, ((Page<?>) cached).getTotalElements());
+
+		// Escritura por Hibernate (PUT) y por JDBC (lote): las dos invalidan
+		CustomerOutputDto bosch = cached.getContent().get(0);
+		customerService.updateById(bosch.id(), new Customer(null, "Pere", "Abad", "pere@mail.com"), null);
+		assertEquals("Abad", customerService.searchProjected("a", firstPage, CountMode.EXACT)
+				.getContent().get(0).lastName());
+		customerService.saveAll(List.of(new Customer(null, "Ada", "Aaron", "ada@mail.com")));
+		assertEquals("Aaron", customerService.searchProjected("a", firstPage, CountMode.EXACT)
+				.getContent().get(0).lastName());
+	}
+
+	@Test
+	void suggestIndexRebuildPicksUpWritesThatDidNotGoThroughThisInstance() {
+		// Guardado directamente en la BBDD, como si viniera de otra instancia
+		Customer other = customerRepository.save(new Customer(null, "Olga", "Quesada", "olga@mail.com"));
+		assertEquals(List.of(), customerService.suggest("quesa", 10));
+
+		suggestIndex.rebuild();
+		assertEquals(List.of(other.getId()),
+				customerService.suggest("quesa", 10).stream().map(CustomerOutputDto::id).toList());
+	}
+
+	@Test
+	void suggestFollowsWritesWithoutQueryingTheDatabase() {
+		// Apellido único: deleteAll() del setUp no publica eventos y el índice conserva los anteriores
+		Customer saved = customerService.save(new Customer(null, "Íñigo", "Quiroga", "inigo@mail.com"));
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		long statements = statistics.getPrepareStatementCount();
+
+		assertEquals(List.of(new CustomerOutputDto(saved.getId(), "Íñigo", "Quiroga", "inigo@mail.com")),
+				customerService.suggest("quir", 10));
+		assertEquals(List.of(saved.getId()),
+				customerService.suggest("INIGO", 10).stream().map(CustomerOutputDto::id).toList());
+		assertEquals(statements, statistics.getPrepareStatementCount());
+
+		customerService.updateById(saved.getId(), new Customer(null, "Íñigo", "Quintana", "inigo@mail.com"), null);
+		assertEquals(List.of(), customerService.suggest("quir", 10));
+		assertEquals("Quintana", customerService.suggest("quin", 10).get(0).lastName());
+
+		customerService.deleteById(saved.getId());
+		assertEquals(List.of(), customerService.suggest("quin", 10));
+		assertEquals(List.of(), customerService.suggest(" ", 10));
+	}
+
+	@Test
+	void updateBumpsVersionAndRejectsStaleCopies() {
+		Integer id = customerRepository.findAll().get(0).getId();
+		Customer stale = customerService.findById(id);
+		assertEquals(0L, stale.getVersion());
+		assertEquals(0L, customerService.findCachedVersion(id));
+		String tableVersion = customerService.currentTableVersion();
+
+		Customer fresh = customerService.findById(id);
+		fresh.setFirstName("Nuevo");
+		assertEquals(1L, customerService.update(fresh).getVersion());
+		assertNull(customerService.findCachedVersion(id));
+		assertNotEquals(tableVersion, customerService.currentTableVersion());
+
+		stale.setFirstName("Perdido");
+		assertThrows(ObjectOptimisticLockingFailureException.class, () -> customerService.update(stale));
+	}
+
+	@Test
+	void directUpdateDeleteAndPatchUseAffectedRowsForMissingIds() {
+		Integer id = customerRepository.findAll().get(0).getId();
+
+		Customer updated = customerService.updateById(id, new Customer(null, "Ana", "Ruiz", "ana@mail.com"), 0L);
+		assertEquals(1L, updated.getVersion());
+		assertThrows(PreconditionFailedException.class,
+				() -> customerService.updateById(id, new Customer(null, "Ana", "Ruiz", "ana@mail.com"), 0L));
+		assertEquals("Ruiz", customerService.findById(id).getLastName());
+
+		Customer patched = customerService.patch(id, new Customer(null, null, "Soler", null), 1L);
+		assertEquals(2L, patched.getVersion());
+		assertEquals("Ana", patched.getFirstName());
+		assertEquals("Soler", customerService.findById(id).getLastName());
+
+		customerService.deleteById(id);
+		assertThrows(ResourceNotFoundException.class, () -> customerService.deleteById(id));
+		assertThrows(ResourceNotFoundException.class,
+				() -> customerService.updateById(id, new Customer(null, "Ana", "Ruiz", "ana@mail.com"), null));
+		assertThrows(ResourceNotFoundException.class,
+				() -> customerService.patch(id, new Customer(null, "Eva", null, null), null));
+	}
+
+	@Test
+	void saveAllReportsInvalidAndDuplicateItemsWithoutAbortingTheBatch() {
+		BatchResult result = customerService.saveAll(Arrays.asList(
+				new Customer(null, "Nuevo", "Uno", "nuevo1@mail.com"),
+				new Customer(null, "", "SinNombre", "sin@mail.com"),
+				new Customer(null, "Repe", "Tabla", "ana@mail.com"),
+				new Customer(null, "Nuevo", "Dos", "nuevo2@mail.com"),
+				new Customer(null, "Repe", "Lote", "nuevo2@mail.com")
+		));
+
+		assertEquals(List.of(BatchItemResult.Status.CREATED, BatchItemResult.Status.INVALID,
+						BatchItemResult.Status.DUPLICATE, BatchItemResult.Status.CREATED,
+						BatchItemResult.Status.DUPLICATE),
+				result.getItems().stream().map(BatchItemResult::getStatus).toList());
+		assertEquals(2, result.getSucceeded());
+		assertEquals(7, customerRepository.count());
+
+		Integer createdId = result.getItems().get(0).getId();
+		assertEquals("nuevo1@mail.com", customerService.findById(createdId).getEmail());
+	}
+
+	@Test
+	void updateAllAndDeleteAllByIdReportMissingIds() {
+		Customer ana = customerRepository.findAll().stream()
+				.filter(c -> c.getEmail().equals("ana@mail.com")).findFirst().orElseThrow();
+		customerService.findById(ana.getId()); // queda en caché
+
+		Customer anaMaria = new Customer(ana.getId(), "Ana María", "Zapata", "ana@mail.com");
+		BatchResult updated = customerService.updateAll(List.of(
+				anaMaria,
+				new Customer(-1, "Nadie", "Nadie", "nadie@mail.com")
+		));
+		assertEquals(List.of(BatchItemResult.Status.UPDATED, BatchItemResult.Status.NOT_FOUND),
+				updated.getItems().stream().map(BatchItemResult::getStatus).toList());
+		// El evento UPDATED lleva la versión que ha quedado en la BBDD, no la del cliente
+		assertEquals(ana.getVersion() + 1, anaMaria.getVersion());
+		assertEquals("Ana María", customerService.findById(ana.getId()).getFirstName());
+
+		BatchResult deleted = customerService.deleteAllById(Arrays.asList(ana.getId(), null, -1));
+		assertEquals(List.of(BatchItemResult.Status.DELETED, BatchItemResult.Status.INVALID,
+						BatchItemResult.Status.NOT_FOUND),
+				deleted.getItems().stream().map(BatchItemResult::getStatus).toList());
+		assertEquals(List.of(0, 1, 2), deleted.getItems().stream().map(BatchItemResult::getIndex).toList());
+		assertFalse(customerRepository.existsById(ana.getId()));
+	}
+
+	@Test
+	void exportStreamsMatchingCustomersInIdOrder() {
+		List<Customer> exported = new ArrayList<>();
+		customerService.export("garcía", exported::add);
+
+		assertEquals(List.of("Luis", "Marta"), exported.stream().map(Customer::getFirstName).toList());
+		assertTrue(exported.get(0).getId() < exported.get(1).getId());
+	}
+
+	@Test
+	void importAllAppliesDuplicatePolicy() {
+		List<ImportRecord> records = List.of(
+				ImportRecord.of(1, new Customer(null, "Nueva", "Persona", "nueva@mail.com")),
+				ImportRecord.unreadable(2, "JSON no válido"),
+				ImportRecord.of(3, new Customer(null, "Ana", "Actualizada", "ana@mail.com")),
+				ImportRecord.of(4, new Customer(null, "", "SinNombre", "sin@mail.com"))
+		);
+
+		ImportResult skipped = customerService.importAll(records.iterator(), DuplicatePolicy.SKIP);
+		assertEquals(4, skipped.getProcessed());
+		assertEquals(1, skipped.getCreated());
+		assertEquals(1, skipped.getSkipped());
+		assertEquals(2, skipped.getInvalid());
+		assertEquals(List.of(2L, 3L, 4L), skipped.getErrors().stream().map(ImportResult.ImportError::record).sorted().toList());
+
+		ImportResult upserted = customerService.importAll(
+				List.of(records.get(2)).iterator(), DuplicatePolicy.UPSERT);
+		assertEquals(1, upserted.getUpdated());
+		assertEquals(1, customerService.search("actualizada", PageRequest.of(0, 5)).getTotalElements());
+
+		ImportResult failed = customerService.importAll(
+				List.of(ImportRecord.of(1, new Customer(null, "Luis", "Otra vez", "luis@mail.com"))).iterator(),
+				DuplicatePolicy.FAIL);
+		assertTrue(failed.isAborted());
+	}
+}
@@ -0,0 +1,34 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerSortTests {
+
+	@Test
+	void completesTheFirstFieldWithItsTiebreakersInTheSameDirection() {
+		assertEquals(Sort.by("id"), CustomerSort.managed(Sort.unsorted()));
+		assertEquals(Sort.by(Sort.Direction.DESC, "lastName", "firstName", "id"),
+				CustomerSort.managed(Sort.by(Sort.Order.desc("lastName"), Sort.Order.asc("id"))));
+		assertEquals(Sort.by("firstName", "lastName", "id"),
+				CustomerSort.managed(Sort.by(Sort.Order.asc("firstName").ignoreCase(), Sort.Order.desc("email"))));
+		assertEquals(Sort.by(Sort.Direction.DESC, "email"), CustomerSort.managed(Sort.by(Sort.Direction.DESC, "email")));
+	}
+
+	@Test
+	void keepsPagingAndRejectsFieldsWithoutIndex() {
+		Pageable managed = CustomerSort.managed(PageRequest.of(3, 20, Sort.by("lastName")));
+		assertEquals(PageRequest.of(3, 20, Sort.by("lastName", "firstName", "id")), managed);
+		assertTrue(CustomerSort.managed(Pageable.unpaged()).isUnpaged());
+
+		BadRequestException ex = assertThrows(BadRequestException.class,
+				() -> CustomerSort.managed(Sort.by("lastName", "version")));
+		assertTrue(ex.getMessage().contains("version"));
+		assertThrows(BadRequestException.class, () -> CustomerSort.managed(Sort.by("first_name")));
+	}
+}
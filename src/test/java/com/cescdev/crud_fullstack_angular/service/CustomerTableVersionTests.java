@@ -0,0 +1,30 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerTableVersionTests {
+
+	@Test
+	void changesWithLocalWritesAndWithEveryMaxStaleInterval() {
+		AtomicLong now = new AtomicLong(10_000);
+		CustomerTableVersion version = new CustomerTableVersion(Duration.ofSeconds(5), now::get);
+		String initial = version.current();
+
+		now.addAndGet(4_000);
+		assertEquals(initial, version.current());
+
+		version.onCustomerChanged(CustomerChangedEvent.deleted(1));
+		String afterWrite = version.current();
+		assertNotEquals(initial, afterWrite);
+
+		// Sin escrituras aquí, pero pueden haberlas hecho otras instancias
+		now.addAndGet(1_000);
+		assertNotEquals(afterWrite, version.current());
+		assertTrue(version.current().startsWith(version.instanceId() + "-"));
+	}
+}
@@ -0,0 +1,131 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.BatchItemResult;
+import com.cescdev.crud_fullstack_angular.dto.BatchResult;
+import com.cescdev.crud_fullstack_angular.dto.WriteStatus;
+import com.cescdev.crud_fullstack_angular.entity.Customer;
+import com.cescdev.crud_fullstack_angular.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerWriteBehindTests {
+
+	private final BlockingBatchWriter batchWriter = new BlockingBatchWriter();
+
+	private final CustomerWriteBehind writeBehind = new CustomerWriteBehind(batchWriter, 2, 10,
+			Duration.ZERO, Duration.ofSeconds(3), Duration.ofSeconds(10), Duration.ofMinutes(1), 100,
+			new SimpleMeterRegistry());
+
+	@Test
+	void rejectsWhenTheQueueIsFullAndDrainsItOnStop() throws Exception {
+		writeBehind.start();
+		WriteStatus first = writeBehind.submitCreate(new Customer(null, "Ana", "Zapata", "ana@mail.com"));
+		// El hilo está escribiendo el primero: los dos siguientes llenan la cola
+		assertTrue(batchWriter.writing.await(5, TimeUnit.SECONDS));
+		WriteStatus second = writeBehind.submitCreate(new Customer(null, "Luis", "García", "luis@mail.com"));
+		WriteStatus third = writeBehind.submitCreate(new Customer(null, "Pere", "Bosch", "pere@mail.com"));
+		assertEquals(WriteStatus.Status.PENDING, writeBehind.status(second.trackingId()).status());
+
+		ServiceUnavailableException full = assertThrows(ServiceUnavailableException.class,
+				() -> writeBehind.submitCreate(new Customer(null, "Marta", "García", "marta@mail.com")));
+		assertEquals(Duration.ofSeconds(3), full.getRetryAfter());
+
+		batchWriter.release.countDown();
+		writeBehind.stop();
+		for (WriteStatus accepted : List.of(first, second, third)) {
+			assertEquals(WriteStatus.Status.CREATED, writeBehind.status(accepted.trackingId()).status());
+		}
+		assertEquals(List.of(1, 2), batchWriter.batchSizes);
+		assertThrows(ServiceUnavailableException.class,
+				() -> writeBehind.submitCreate(new Customer(null, "Laura", "Vidal", "laura@mail.com")));
+	}
+
+	@Test
+	void aFailedUpdateDoesNotOverwriteCreatesOfTheSameBatch() {
+		writeBehind.start();
+		WriteStatus first = writeBehind.submitCreate(new Customer(null, "Ana", "Zapata", "ana@mail.com"));
+		assertDoesNotThrow(() -> batchWriter.writing.await(5, TimeUnit.SECONDS));
+		// Mientras se escribe el primero, un alta y una modificación forman el siguiente lote
+		WriteStatus created = writeBehind.submitCreate(new Customer(null, "Luis", "García", "luis@mail.com"));
+		WriteStatus updated = writeBehind.submitUpdate(new Customer(7, "Pere", "Bosch", "pere@mail.com"));
+
+		batchWriter.release.countDown();
+		writeBehind.stop();
+		assertEquals(List.of(1, 1), batchWriter.batchSizes);
+		assertEquals(WriteStatus.Status.CREATED, writeBehind.status(first.trackingId()).status());
+		assertEquals(WriteStatus.Status.CREATED, writeBehind.status(created.trackingId()).status());
+		assertEquals(WriteStatus.Status.FAILED, writeBehind.status(updated.trackingId()).status());
+	}
+
+	@Test
+	void writesLeftInTheQueueAfterTheDrainTimeoutEndFailed() throws Exception {
+		CustomerWriteBehind impatient = new CustomerWriteBehind(batchWriter, 2, 10,
+				Duration.ZERO, Duration.ofSeconds(3), Duration.ofMillis(100), Duration.ofMinutes(1), 100,
+				new SimpleMeterRegistry());
+		impatient.start();
+		WriteStatus first = impatient.submitCreate(new Customer(null, "Ana", "Zapata", "ana@mail.com"));
+		assertTrue(batchWriter.writing.await(5, TimeUnit.SECONDS));
+		WriteStatus queued = impatient.submitCreate(new Customer(null, "Luis", "García", "luis@mail.com"));
+
+		// El primer lote no termina en drain-timeout: el encolado no puede quedarse PENDING
+		impatient.stop();
+		assertEquals(WriteStatus.Status.FAILED, impatient.status(queued.trackingId()).status());
+		assertNotEquals(WriteStatus.Status.PENDING, awaitDone(impatient, first).status());
+	}
+
+	private static WriteStatus awaitDone(CustomerWriteBehind writeBehind, WriteStatus accepted) throws Exception {
+		for (int i = 0; i < 100; i++) {
+			WriteStatus status = writeBehind.status(accepted.trackingId());
+			if (status.status() != WriteStatus.Status.PENDING) {
+				return status;
+			}
+			Thread.sleep(50);
+		}
+		return writeBehind.status(accepted.trackingId());
+	}
+
+	/**
+	 * Da de alta sin base de datos (el primer lote se queda esperando a release);
+	 * las modificaciones fallan siempre.
+	 */
+	private static class BlockingBatchWriter extends CustomerBatchWriter {
+		final CountDownLatch writing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Integer> batchSizes = new ArrayList<>();
+		private final AtomicInteger ids = new AtomicInteger();
+
+		BlockingBatchWriter() {
+			super(null, null, null, null, 500, 10000);
+		}
+
+		@Override
+		public BatchResult insertAll(List<Customer> customers) {
+			writing.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			batchSizes.add(customers.size());
+			List<BatchItemResult> items = new ArrayList<>();
+			for (int i = 0; i < customers.size(); i++) {
+				items.add(BatchItemResult.ok(i, ids.incrementAndGet(), BatchItemResult.Status.CREATED));
+			}
+			return new BatchResult(items);
+		}
+
+		@Override
+		public BatchResult updateAll(List<Customer> customers) {
+			throw new IllegalStateException("Conexión perdida");
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class NgramIndexTests {
+
+	@Test
+	void searchMatchesCaseInsensitiveSubstringInAnyField() {
+		NgramIndex index = new NgramIndex();
+		index.put(3, "Ana", "Zapata", "ana@mail.com");
+		index.put(1, "Luis", "García", "luis@mail.com");
+		index.put(2, "Marta", "Garcíaz", "marta@otro.es");
+
+		assertArrayEquals(new int[]{1, 2}, index.search("GARC"));
+		assertArrayEquals(new int[]{1, 3}, index.search("mail.com"));
+		assertArrayEquals(new int[]{2, 3}, index.search("ta"));
+		assertArrayEquals(new int[]{}, index.search("xyz"));
+	}
+
+	@Test
+	void searchIgnoresAccentsOnBothSidesLikeTheMysqlCollation() {
+		NgramIndex index = new NgramIndex();
+		index.put(1, "Luis", "García", "luis@mail.com");
+		index.put(2, "Íñigo", "Garcia", "inigo@mail.com");
+
+		assertArrayEquals(new int[]{1, 2}, index.search("garcia"));
+		assertArrayEquals(new int[]{1, 2}, index.search("GARCÍA"));
+		assertArrayEquals(new int[]{2}, index.search("inigo"));
+		assertArrayEquals(new int[]{2}, index.search("ÑI"));
+	}
+
+	@Test
+	void searchDoesNotMatchAcrossFieldBoundaries() {
+		NgramIndex index = new NgramIndex();
+		index.put(1, "Ana", "Bosch", "a@b.es");
+
+		// "anabo" sólo existiría concatenando firstName y lastName
+		assertArrayEquals(new int[]{}, index.search("anabo"));
+	}
+
+	@Test
+	void putReplacesAndRemoveDeletesDocuments() {
+		NgramIndex index = new NgramIndex();
+		index.put(1, "Luis", "García", "luis@mail.com");
+		index.put(1, "Luis", "Vidal", "luis@mail.com");
+		assertArrayEquals(new int[]{}, index.search("garc"));
+		assertArrayEquals(new int[]{1}, index.search("vidal"));
+
+		index.remove(1);
+		assertArrayEquals(new int[]{}, index.search("vidal"));
+	}
+}
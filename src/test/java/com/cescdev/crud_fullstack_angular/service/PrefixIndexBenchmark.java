@@ -0,0 +1,69 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia del autocompletado en memoria (p50/p99 con Mode.SampleTime) y su
+ * huella con muchos customers. La memoria se imprime al preparar el índice.
+ *
+ * Los prefijos son de 1 a 4 letras de nombres/apellidos reales, así que
+ * incluyen los peores casos (una letra: muchísimos candidatos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PrefixIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Ana", "Luis", "Marta", "Pere", "Laura", "Álvaro", "Íñigo",
+            "Carmen", "José", "Lucía", "Jordi", "Núria", "Pablo", "Sofía", "Miguel", "Elena"};
+    private static final String[] LAST_NAMES = {"García", "Martínez", "López", "Sánchez", "Pérez", "Gómez",
+            "Fernández", "Ruiz", "Vidal", "Bosch", "Zapata", "Quiroga", "Núñez", "Ortiz", "Castro", "Serra"};
+
+    @Param({"1000000"})
+    public int rows;
+
+    private PrefixIndex index;
+    private String[] prefixes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new PrefixIndex();
+        index.beginBulkLoad();
+        for (int id = 1; id <= rows; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + id;
+            index.put(id, first, last, first.toLowerCase() + id + "@mail.com");
+        }
+        index.endBulkLoad();
+        System.out.printf("%n%d customers, %d MB%n", index.size(), index.memoryBytes() >> 20);
+
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String name = random.nextBoolean()
+                    ? FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]
+                    : LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            prefixes[i] = name.substring(0, 1 + random.nextInt(Math.min(4, name.length())));
+        }
+    }
+
+    @Benchmark
+    public List<CustomerOutputDto> search() {
+        return index.search(prefixes[ThreadLocalRandom.current().nextInt(prefixes.length)], 10);
+    }
+
+    @Benchmark
+    public void put() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(rows);
+        index.put(id, "Nombre", "Apellido" + id, "c" + id + "@mail.com");
+    }
+}
@@ -0,0 +1,92 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.dto.CustomerOutputDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrefixIndexTests {
+
+	@Test
+	void searchMatchesPrefixOfAnyFieldIgnoringCaseAndAccents() {
+		PrefixIndex index = new PrefixIndex();
+		index.put(1, "Luis", "García", "luis@mail.com");
+		index.put(2, "Álvaro", "Garcés", "alvaro@otro.es");
+		index.put(3, "Ana", "Zapata", "ana@mail.com");
+
+		assertEquals(List.of(2, 1), ids(index.search("GARC", 10)));
+		assertEquals(List.of(2), ids(index.search("alv", 10)));
+		assertEquals(List.of(1), ids(index.search("garcia", 10)));
+		// Sólo prefijos: "apata" está dentro de Zapata pero no al principio
+		assertEquals(List.of(), ids(index.search("apata", 10)));
+		assertEquals(List.of(), ids(index.search("  ", 10)));
+	}
+
+	@Test
+	void searchReturnsEachCustomerOnceUpToTheLimit() {
+		PrefixIndex index = new PrefixIndex();
+		// firstName, lastName y email empiezan por "ma"
+		index.put(1, "Marta", "Martín", "marta@mail.com");
+		index.put(2, "Mateo", "Ruiz", "mateo@mail.com");
+		index.put(3, "Manuel", "Soto", "manuel@mail.com");
+
+		List<CustomerOutputDto> found = index.search("ma", 10);
+		assertEquals(List.of(3, 1, 2), ids(found));
+		assertEquals(new CustomerOutputDto(3, "Manuel", "Soto", "manuel@mail.com"), found.get(0));
+		assertEquals(List.of(3, 1), ids(index.search("ma", 2)));
+	}
+
+	@Test
+	void putReplacesAndRemoveDeletesCustomers() {
+		PrefixIndex index = new PrefixIndex();
+		index.put(1, "Luis", "García", "luis@mail.com");
+		index.put(1, "Luis", "Vidal", "luis@mail.com");
+		assertEquals(List.of(), ids(index.search("garc", 10)));
+		assertEquals(List.of(1), ids(index.search("vid", 10)));
+
+		index.remove(1);
+		assertEquals(List.of(), ids(index.search("luis", 10)));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void bulkLoadIsSortedOnceAndCannotBeSearchedMeanwhile() {
+		PrefixIndex index = new PrefixIndex();
+		index.put(1, "Zoe", "Prieto", "zoe@mail.com");
+		index.beginBulkLoad();
+		index.put(3, "Pablo", "Ortiz", "pablo@mail.com");
+		index.put(2, "Paula", "Nieto", "paula@mail.com");
+		index.put(1, "Zoe", "Pardo", "zoe@mail.com");
+		assertThrows(IllegalStateException.class, () -> index.search("p", 10));
+		index.endBulkLoad();
+
+		assertEquals(List.of(3, 1, 2), ids(index.search("pa", 10)));
+		assertEquals(List.of(), ids(index.search("prieto", 10)));
+	}
+
+	@Test
+	void manyUpdatesKeepOnlyTheCurrentValues() {
+		PrefixIndex index = new PrefixIndex();
+		// Suficientes cambios para forzar varias fusiones y compactaciones
+		for (int round = 0; round < 20; round++) {
+			for (int id = 1; id <= 500; id++) {
+				index.put(id, "Nombre" + id, "Ronda" + round, "c" + id + "@mail.com");
+			}
+		}
+		for (int id = 251; id <= 500; id++) {
+			index.remove(id);
+		}
+
+		assertEquals(250, index.size());
+		assertEquals(List.of(), ids(index.search("ronda18", 10)));
+		assertEquals(250, index.search("ronda19", 1000).size());
+		assertEquals(List.of(1, 10, 100), ids(index.search("nombre1", 3)));
+	}
+
+	private static List<Integer> ids(List<CustomerOutputDto> customers) {
+		return customers.stream().map(CustomerOutputDto::id).toList();
+	}
+}
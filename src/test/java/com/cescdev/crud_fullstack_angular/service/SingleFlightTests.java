@@ -0,0 +1,117 @@
+package com.cescdev.crud_fullstack_angular.service;
+
+import com.cescdev.crud_fullstack_angular.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTests {
+
+	private static final int CALLERS = 8;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+	private final SingleFlight<Integer, String> flight = new SingleFlight<>();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallsShareOneLoad() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<String>> results = callConcurrently(() -> {
+			loads.incrementAndGet();
+			await(release);
+			return "Ana";
+		});
+		release.countDown();
+
+		for (Future<String> result : results) {
+			assertEquals("Ana", result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, loads.get());
+		assertEquals(1, flight.leaders());
+		assertEquals(CALLERS - 1, flight.followers());
+
+		// Terminada la consulta, la siguiente llamada consulta de nuevo
+		assertEquals("Luis", flight.execute(1, () -> "Luis"));
+		assertEquals(2, flight.leaders());
+	}
+
+	@Test
+	void followersReceiveTheLeadersException() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		List<Future<String>> results = callConcurrently(() -> {
+			await(release);
+			throw new ResourceNotFoundException("Customer con id 1 no se encuentra");
+		});
+		release.countDown();
+
+		for (Future<String> result : results) {
+			Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(ResourceNotFoundException.class, e.getCause());
+		}
+		assertEquals("Ana", flight.execute(1, () -> "Ana"));
+	}
+
+	@Test
+	void forgetStartsANewLoadForLaterCallers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> before = executor.submit(() -> flight.execute(1, () -> {
+			started.countDown();
+			await(release);
+			return "antes";
+		}));
+		started.await(5, TimeUnit.SECONDS);
+
+		flight.forget(1);
+		assertEquals("después", flight.execute(1, () -> "después"));
+		release.countDown();
+		assertEquals("antes", before.get(5, TimeUnit.SECONDS));
+		assertEquals(0, flight.followers());
+	}
+
+	/**
+	 * Lanza CALLERS llamadas con la misma clave y espera a que todas estén
+	 * dentro de execute (una cargando y el resto esperándola).
+	 */
+	private List<Future<String>> callConcurrently(Supplier<String> loader) throws InterruptedException {
+		CountDownLatch loading = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		results.add(executor.submit(() -> flight.execute(1, () -> {
+			loading.countDown();
+			return loader.get();
+		})));
+		loading.await(5, TimeUnit.SECONDS);
+		for (int i = 1; i < CALLERS; i++) {
+			results.add(executor.submit(() -> flight.execute(1, loader)));
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (flight.followers() < CALLERS - 1 && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		return results;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
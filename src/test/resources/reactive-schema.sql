@@ -0,0 +1,12 @@
+-- Esquema para los tests sin Hibernate que lo genere (perfil reactive y réplicas
+-- de ReplicaRoutingTests): el mismo que crean las migraciones de db/migration.
+CREATE TABLE IF NOT EXISTS customers (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    first_name VARCHAR(50) NOT NULL,
+    last_name VARCHAR(50) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    version BIGINT NOT NULL DEFAULT 0
+);
+CREATE INDEX IF NOT EXISTS idx_customers_last_name_id ON customers (last_name, id);
+CREATE INDEX IF NOT EXISTS idx_customers_last_name_first_name_id ON customers (last_name, first_name, id);
+CREATE INDEX IF NOT EXISTS idx_customers_first_name_last_name_id ON customers (first_name, last_name, id);